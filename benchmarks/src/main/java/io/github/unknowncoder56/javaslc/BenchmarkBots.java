@@ -0,0 +1,48 @@
+package io.github.unknowncoder56.javaslc;
+
+/**
+ * Builds the bots used by the benchmarks. The bots are never started, so no request is made, and their listeners run inline on the benchmark thread.
+ */
+final class BenchmarkBots {
+
+    /**
+     * The ID of the server of the benchmark messages.
+     */
+    static final String SERVER_ID = "1001";
+
+    /**
+     * The user ID of the benchmark bot.
+     */
+    static final String BOT_USER_ID = "1";
+
+    /**
+     * The user ID of the owner of the benchmark messages.
+     */
+    static final String OWNER_ID = "2";
+
+    private BenchmarkBots() {
+
+    }
+
+    /**
+     * Builds a bot with the prefix {@code !} which runs its listeners on the calling thread.
+     * @return A new, not started {@link Bot}.
+     */
+    static Bot newBot() {
+        return BotBuilder.newInstance()
+                .setPrefix("!")
+                .setToken("benchmark-token")
+                .setBotUserId(BOT_USER_ID)
+                .setDispatchThreads(0)
+                .build();
+    }
+
+    /**
+     * Builds the JSON text of a {@code prompt} event, as received by the socket.
+     * @param content The message content.
+     * @return The JSON text of the event payload.
+     */
+    static String promptJson(String content) {
+        return "{\"server_id\":\"" + SERVER_ID + "\",\"message\":{\"id\":\"42\",\"content\":\"" + content.replace("\"", "\\\"") + "\",\"owner\":\"" + OWNER_ID + "\"}}";
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.unknowncoder56.javaslc;
+
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building the {@link MessageContext} and {@link CommandContext} of a decoded message, including reading the command arguments.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContextBenchmark {
+
+    private Bot bot;
+    private InboundMessage message;
+    private InboundMessage command;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bot = BenchmarkBots.newBot();
+        message = InboundMessage.fromPrompt(new JSONObject(BenchmarkBots.promptJson("hello there, this is a regular chat message")));
+        command = InboundMessage.fromPrompt(new JSONObject(BenchmarkBots.promptJson("!ban @2 spamming in the chat")));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        bot.close();
+    }
+
+    @Benchmark
+    public MessageContext messageContext() {
+        return new MessageContext(message, bot);
+    }
+
+    @Benchmark
+    public String[] commandContext() {
+        TokenizedCommand tokens = TokenizedCommand.tokenize(command.getContent(), 1);
+        CommandContext context = new CommandContext(command, bot, tokens, tokens.get(0), tokens.get(0), 1);
+        return context.getArguments();
+    }
+}
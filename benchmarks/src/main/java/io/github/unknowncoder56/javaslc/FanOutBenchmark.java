@@ -0,0 +1,66 @@
+package io.github.unknowncoder56.javaslc;
+
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures handing one message to N {@link MessageListener}s, and one command to N {@link CommandListener}s, so the cost per listener shows as the slope over N.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FanOutBenchmark {
+
+    @Param({"1", "8", "64"})
+    public int listeners;
+
+    private Bot bot;
+    private InboundMessage message;
+    private InboundMessage command;
+    private long handled;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bot = BenchmarkBots.newBot();
+        for (int i = 0; i < listeners; i++) {
+            bot.addMessageListener(context -> handled += context.getContent().length());
+            bot.addCommandListener(context -> handled += context.getArguments().length);
+        }
+        message = InboundMessage.fromPrompt(new JSONObject(BenchmarkBots.promptJson("hello there, this is a regular chat message")));
+        command = InboundMessage.fromPrompt(new JSONObject(BenchmarkBots.promptJson("!unknown first second third")));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        bot.close();
+    }
+
+    @Benchmark
+    public long message() {
+        bot.handleMessage(message);
+        return handled;
+    }
+
+    @Benchmark
+    public long command() {
+        bot.handleMessage(command);
+        return handled;
+    }
+}
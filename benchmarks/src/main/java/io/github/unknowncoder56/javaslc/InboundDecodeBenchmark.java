@@ -0,0 +1,63 @@
+package io.github.unknowncoder56.javaslc;
+
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures decoding a {@code prompt} event into an {@link InboundMessage}, from the parsed payload socket.io hands to the handler and from its JSON text, and the whole path from the payload to the end of {@link Bot#handleMessage(InboundMessage)} with one listener.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InboundDecodeBenchmark {
+
+    private Bot bot;
+    private String promptText;
+    private JSONObject promptObject;
+    private long handled;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bot = BenchmarkBots.newBot();
+        bot.addMessageListener(context -> handled += context.getContent().length());
+        promptText = BenchmarkBots.promptJson("hello there, this is a regular chat message");
+        promptObject = new JSONObject(promptText);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        bot.close();
+    }
+
+    @Benchmark
+    public InboundMessage decodeParsedPayload() {
+        return InboundMessage.fromPrompt(promptObject);
+    }
+
+    @Benchmark
+    public InboundMessage decodeJsonText() {
+        return InboundMessage.fromPrompt(promptText);
+    }
+
+    @Benchmark
+    public long decodeAndHandle() {
+        bot.handleMessage(InboundMessage.fromPrompt(promptObject));
+        return handled;
+    }
+}
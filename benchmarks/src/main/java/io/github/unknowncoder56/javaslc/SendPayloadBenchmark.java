@@ -0,0 +1,54 @@
+package io.github.unknowncoder56.javaslc;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building the payload of the {@code message} event written by {@link Bot#send(String, String)}, and encoding it to the JSON text put on the wire.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SendPayloadBenchmark {
+
+    private Bot bot;
+    private OutboundWriter writer;
+    private final String content = "Pong! The bot is up and answering in this server.";
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bot = BenchmarkBots.newBot();
+        // Only the payload is built, so the writer needs neither a socket nor send settings.
+        writer = new OutboundWriter(bot, BenchmarkBots.SERVER_ID, null, null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        bot.close();
+    }
+
+    @Benchmark
+    public OutboundWriter.Payload build() {
+        return writer.buildPayload(content);
+    }
+
+    @Benchmark
+    public String buildAndEncode() {
+        return writer.buildPayload(content).toString();
+    }
+}
@@ -0,0 +1,48 @@
+package io.github.unknowncoder56.javaslc;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures tokenizing commands of different shapes, only scanning them and scanning then reading every token.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenizerBenchmark {
+
+    @Param({
+            "!ping",
+            "!ban @2 spamming in the chat",
+            "!say \"a quoted \\\"argument\\\"\" --silent --channel=general and some more words"
+    })
+    public String content;
+
+    @Benchmark
+    public int scan() {
+        return TokenizedCommand.tokenize(content, 1).size();
+    }
+
+    @Benchmark
+    public int scanAndRead() {
+        TokenizedCommand tokens = TokenizedCommand.tokenize(content, 1);
+        int length = 0;
+        for (int i = 0; i < tokens.size(); i++) {
+            length += tokens.get(i).length();
+        }
+        return length;
+    }
+}
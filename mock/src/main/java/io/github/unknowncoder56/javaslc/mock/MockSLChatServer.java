@@ -0,0 +1,478 @@
+package io.github.unknowncoder56.javaslc.mock;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An embeddable stand-in for the SLChat backend, to run bots offline for load, throughput and latency tests. It serves {@code /api/user/{id}/}, {@code /api/new_server} and {@code /api/change} from in-memory users, and the {@code prompt} and {@code message} socket events over the engine.io long-polling transport, which the socket.io client uses when no upgrade is offered.
+ * Messages sent by a bot are echoed as {@code prompt} events to every socket of their server, like SLChat does, and recorded so tests can read them with {@link MockSLChatServer#pollSentMessage(Duration)}. Messages from other users are injected with {@link MockSLChatServer#prompt(String, String, String)}.
+ * Point a bot at it with {@link io.github.unknowncoder56.javaslc.BotBuilder#setBaseUrl(String)} and {@link MockSLChatServer#getBaseUrl()}. Tokens are not checked.
+ */
+public class MockSLChatServer implements Closeable {
+
+    private static final char RECORD_SEPARATOR = '\u001e';
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final long pingIntervalMillis;
+    private final Map<String, JsonObject> users = new ConcurrentHashMap<>();
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final BlockingQueue<JsonObject> sentMessages = new LinkedBlockingQueue<>();
+    private final AtomicLong messageIds = new AtomicLong();
+    private final LongAdder sentCount = new LongAdder();
+    private final LongAdder promptCount = new LongAdder();
+
+    /**
+     * An engine.io session, which is one connected socket.
+     */
+    private static final class Session {
+
+        private final String serverId;
+        private final String userId;
+        private final Set<String> rooms = ConcurrentHashMap.newKeySet();
+        private final BlockingQueue<String> outbox = new LinkedBlockingQueue<>();
+        private volatile boolean connected;
+
+        private Session(String serverId, String userId) {
+            this.serverId = serverId;
+            this.userId = userId;
+        }
+
+        private boolean isIn(String serverId) {
+            return connected && (serverId.equals(this.serverId) || rooms.contains(serverId));
+        }
+    }
+
+    /**
+     * Constructor to build a mock server listening on the loopback address. Call {@link MockSLChatServer#start()} to start serving.
+     * @param port The port to listen on, or 0 to pick a free port.
+     * @throws IOException If the port could not be bound.
+     */
+    public MockSLChatServer(int port) throws IOException {
+        this(port, Duration.ofSeconds(25));
+    }
+
+    /**
+     * Constructor to build a mock server listening on the loopback address, with a custom engine.io ping interval. Call {@link MockSLChatServer#start()} to start serving.
+     * @param port The port to listen on, or 0 to pick a free port.
+     * @param pingInterval How long a long-polling request is held open when no packet is queued, before it is answered with a ping.
+     * @throws IOException If the port could not be bound.
+     */
+    public MockSLChatServer(int port, Duration pingInterval) throws IOException {
+        this.pingIntervalMillis = pingInterval.toMillis();
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        AtomicInteger threadNumber = new AtomicInteger();
+        // Long-polling requests block a thread each, so the pool must grow with the number of sockets.
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "mock-slchat-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/api/user/", exchange -> handle(exchange, this::handleUser));
+        server.createContext("/api/new_server", exchange -> handle(exchange, this::handleNewServer));
+        server.createContext("/api/change", exchange -> handle(exchange, this::handleChange));
+        server.createContext("/socket.io/", exchange -> handle(exchange, this::handleEngineIo));
+    }
+
+    /**
+     * Starts serving requests.
+     * @return This {@link MockSLChatServer} instance.
+     */
+    public MockSLChatServer start() {
+        server.start();
+        return this;
+    }
+
+    /**
+     * Stops the server and drops all sockets.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+        sessions.clear();
+    }
+
+    /**
+     * Gets the base URL of the server, to pass to {@link io.github.unknowncoder56.javaslc.BotBuilder#setBaseUrl(String)}.
+     * @return The base URL of the server.
+     */
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    /**
+     * Adds a user, or replaces it.
+     * @param userId The ID of the user.
+     * @param username The username of the user, also used as its nickname.
+     * @param bot Whether the user has the {@code BOT} label.
+     * @param serverIds The IDs of the servers the user is in.
+     */
+    public void addUser(String userId, String username, boolean bot, String... serverIds) {
+        JsonObject user = new JsonObject();
+        user.addProperty("id", userId);
+        user.addProperty("username", username);
+        user.addProperty("nickname", username);
+        user.addProperty("profile_img", "");
+        user.addProperty("creation_date", LocalDateTime.now().withNano(0).toString());
+        JsonObject label = new JsonObject();
+        label.addProperty("name", bot ? "BOT" : "USER");
+        user.add("label", label);
+        JsonArray servers = new JsonArray();
+        for (String serverId : serverIds) {
+            servers.add(serverId);
+        }
+        user.add("servers", servers);
+        users.put(userId, user);
+    }
+
+    /**
+     * Gets the profile document of a user, as served by {@code /api/user/{id}/}.
+     * @param userId The ID of the user.
+     * @return A copy of the profile document, or {@code null} if there is no such user.
+     */
+    public JsonObject getUser(String userId) {
+        JsonObject user = users.get(userId);
+        return user == null ? null : user.deepCopy();
+    }
+
+    /**
+     * Sends a message to a server, delivering it as a {@code prompt} event to every socket of the server.
+     * @param serverId The ID of the server.
+     * @param ownerId The user ID of the message owner (author).
+     * @param content The message content.
+     * @return The ID given to the message.
+     */
+    public String prompt(String serverId, String ownerId, String content) {
+        String messageId = String.valueOf(messageIds.incrementAndGet());
+        JsonObject message = new JsonObject();
+        message.addProperty("id", messageId);
+        message.addProperty("content", content);
+        message.addProperty("owner", ownerId);
+        JsonObject prompt = new JsonObject();
+        prompt.addProperty("server_id", serverId);
+        prompt.add("message", message);
+        JsonArray event = new JsonArray();
+        event.add("prompt");
+        event.add(prompt);
+        String packet = "42" + event;
+        for (Session session : sessions.values()) {
+            if (session.isIn(serverId)) {
+                session.outbox.add(packet);
+                promptCount.increment();
+            }
+        }
+        return messageId;
+    }
+
+    /**
+     * Waits for the next message sent by a bot with a {@code message} event.
+     * @param timeout The maximum time to wait.
+     * @return The payload of the event ({@code content}, {@code server_id}, {@code token} and {@code op}), or {@code null} if no message was sent in time.
+     * @throws InterruptedException If the current thread is interrupted while waiting.
+     */
+    public JsonObject pollSentMessage(Duration timeout) throws InterruptedException {
+        return sentMessages.poll(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the number of messages sent by bots.
+     * @return The number of {@code message} events received.
+     */
+    public long getSentMessageCount() {
+        return sentCount.sum();
+    }
+
+    /**
+     * Gets the number of {@code prompt} events queued for delivery to sockets.
+     * @return The number of delivered prompts.
+     */
+    public long getPromptCount() {
+        return promptCount.sum();
+    }
+
+    /**
+     * Gets the number of open sockets.
+     * @return The number of engine.io sessions.
+     */
+    public int getSocketCount() {
+        return sessions.size();
+    }
+
+    /**
+     * A handler of one HTTP exchange.
+     */
+    private interface ExchangeHandler {
+        void handle(HttpExchange exchange) throws IOException;
+    }
+
+    /**
+     * Private utility method to run a handler, answering with a 500 if it fails, and to always close the exchange.
+     */
+    private static void handle(HttpExchange exchange, ExchangeHandler handler) {
+        try {
+            handler.handle(exchange);
+        } catch (Exception e) {
+            try {
+                respond(exchange, 500, "text/plain", String.valueOf(e.getMessage()));
+            } catch (IOException ignored) {
+                // The client has gone away.
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Private method serving {@code GET /api/user/{id}/}.
+     */
+    private void handleUser(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String userId = path.substring("/api/user/".length()).replace("/", "");
+        JsonObject user = users.get(userId);
+        if (user == null) {
+            respond(exchange, 404, "application/json", "{\"error\":\"User not found\"}");
+            return;
+        }
+        respond(exchange, 200, "application/json", user.toString());
+    }
+
+    /**
+     * Private method serving {@code POST /api/new_server}, adding the server to the user of the {@code op} cookie.
+     */
+    private void handleNewServer(HttpExchange exchange) throws IOException {
+        Map<String, String> form = parseForm(readBody(exchange));
+        String userId = parseCookies(exchange).getOrDefault("op", form.get("op"));
+        String serverId = form.get("server_id");
+        JsonObject user = userId == null ? null : users.get(userId);
+        if (user == null || serverId == null) {
+            respond(exchange, 400, "application/json", "{\"error\":\"Bad request\"}");
+            return;
+        }
+        synchronized (user) {
+            JsonArray servers = user.getAsJsonArray("servers");
+            for (JsonElement server : servers) {
+                if (server.getAsString().equals(serverId)) {
+                    respond(exchange, 200, "application/json", "{\"success\":true}");
+                    return;
+                }
+            }
+            servers.add(serverId);
+        }
+        respond(exchange, 200, "application/json", "{\"success\":true}");
+    }
+
+    /**
+     * Private method serving {@code POST /api/change}, setting a property of the user of the {@code op} field.
+     */
+    private void handleChange(HttpExchange exchange) throws IOException {
+        Map<String, String> form = parseForm(readBody(exchange));
+        String userId = form.getOrDefault("op", parseCookies(exchange).get("op"));
+        JsonObject user = userId == null ? null : users.get(userId);
+        String key = form.get("change_key");
+        if (user == null || (!"nickname".equals(key) && !"profile_img".equals(key)) || form.get("change_value") == null) {
+            respond(exchange, 400, "application/json", "{\"error\":\"Bad request\"}");
+            return;
+        }
+        synchronized (user) {
+            user.addProperty(key, form.get("change_value"));
+        }
+        respond(exchange, 200, "application/json", "{\"success\":true}");
+    }
+
+    /**
+     * Private method serving the engine.io long-polling transport: a {@code GET} without session ID opens a session, a {@code GET} with one waits for queued packets, and a {@code POST} carries packets from the client.
+     */
+    private void handleEngineIo(HttpExchange exchange) throws IOException {
+        Map<String, String> query = parseForm(exchange.getRequestURI().getRawQuery());
+        if (!"polling".equals(query.get("transport"))) {
+            respond(exchange, 400, "application/json", "{\"code\":0,\"message\":\"Transport unknown\"}");
+            return;
+        }
+        String sessionId = query.get("sid");
+        if (sessionId == null) {
+            sessionId = UUID.randomUUID().toString();
+            sessions.put(sessionId, new Session(query.get("server"), query.get("user")));
+            respond(exchange, 200, "text/plain", "0{\"sid\":\"" + sessionId + "\",\"upgrades\":[],\"pingInterval\":" + pingIntervalMillis + ",\"pingTimeout\":" + pingIntervalMillis + ",\"maxPayload\":1000000}");
+            return;
+        }
+        Session session = sessions.get(sessionId);
+        if (session == null) {
+            respond(exchange, 400, "application/json", "{\"code\":1,\"message\":\"Session ID unknown\"}");
+            return;
+        }
+        if ("POST".equals(exchange.getRequestMethod())) {
+            for (String packet : readBody(exchange).split(String.valueOf(RECORD_SEPARATOR))) {
+                handlePacket(sessionId, session, packet);
+            }
+            respond(exchange, 200, "text/plain", "ok");
+            return;
+        }
+        String first;
+        try {
+            first = session.outbox.poll(pingIntervalMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            first = null;
+        }
+        StringBuilder payload = new StringBuilder(first != null ? first : "2");
+        for (String next = session.outbox.poll(); next != null; next = session.outbox.poll()) {
+            payload.append(RECORD_SEPARATOR).append(next);
+        }
+        respond(exchange, 200, "text/plain", payload.toString());
+    }
+
+    /**
+     * Private method handling one engine.io packet from a client.
+     */
+    private void handlePacket(String sessionId, Session session, String packet) {
+        if (packet.isEmpty()) {
+            return;
+        }
+        switch (packet.charAt(0)) {
+            case '1':
+                sessions.remove(sessionId);
+                // Wakes up a pending poll with a noop packet.
+                session.outbox.add("6");
+                return;
+            case '4':
+                handleSocketIoPacket(session, packet.substring(1));
+                return;
+            default:
+                // Pongs and noops need no answer.
+        }
+    }
+
+    /**
+     * Private method handling one socket.io packet from a client: the namespace connection, a disconnection, or an event with an optional acknowledgement ID.
+     */
+    private void handleSocketIoPacket(Session session, String packet) {
+        if (packet.startsWith("0")) {
+            session.connected = true;
+            session.outbox.add("40{\"sid\":\"" + UUID.randomUUID() + "\"}");
+            return;
+        }
+        if (packet.startsWith("1")) {
+            session.connected = false;
+            return;
+        }
+        if (!packet.startsWith("2")) {
+            return;
+        }
+        int index = 1;
+        if (index < packet.length() && packet.charAt(index) == '/') {
+            index = packet.indexOf(',', index) + 1;
+        }
+        int ackStart = index;
+        while (index < packet.length() && Character.isDigit(packet.charAt(index))) {
+            index++;
+        }
+        String ackId = packet.substring(ackStart, index);
+        JsonArray event = JsonParser.parseString(packet.substring(index)).getAsJsonArray();
+        String name = event.get(0).getAsString();
+        JsonObject data = event.size() > 1 && event.get(1).isJsonObject() ? event.get(1).getAsJsonObject() : new JsonObject();
+        switch (name) {
+            case "message":
+                sentMessages.add(data);
+                sentCount.increment();
+                JsonElement owner = data.get("op");
+                prompt(data.get("server_id").getAsString(), owner != null ? owner.getAsString() : session.userId, data.get("content").getAsString());
+                break;
+            case "join":
+                session.rooms.add(data.get("server_id").getAsString());
+                break;
+            case "leave":
+                session.rooms.remove(data.get("server_id").getAsString());
+                break;
+            default:
+                break;
+        }
+        if (!ackId.isEmpty()) {
+            session.outbox.add("43" + ackId + "[]");
+        }
+    }
+
+    /**
+     * Private utility method to read the body of a request.
+     */
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Private utility method to parse a URL-encoded form or query string.
+     */
+    private static Map<String, String> parseForm(String encoded) {
+        Map<String, String> values = new HashMap<>();
+        if (encoded == null || encoded.isEmpty()) {
+            return values;
+        }
+        for (String pair : encoded.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0) {
+                values.put(URLDecoder.decode(pair.substring(0, equals), StandardCharsets.UTF_8), URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Private utility method to parse the cookies of a request.
+     */
+    private static Map<String, String> parseCookies(HttpExchange exchange) {
+        Map<String, String> cookies = new HashMap<>();
+        for (String header : exchange.getRequestHeaders().getOrDefault("Cookie", List.of())) {
+            for (String cookie : header.split(";")) {
+                int equals = cookie.indexOf('=');
+                if (equals > 0) {
+                    cookies.put(cookie.substring(0, equals).trim(), cookie.substring(equals + 1).trim());
+                }
+            }
+        }
+        return cookies;
+    }
+
+    /**
+     * Private utility method to send a response.
+     */
+    private static void respond(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType + "; charset=UTF-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
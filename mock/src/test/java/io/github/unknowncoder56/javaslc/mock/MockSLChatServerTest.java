@@ -0,0 +1,80 @@
+package io.github.unknowncoder56.javaslc.mock;
+
+import com.google.gson.JsonObject;
+import io.github.unknowncoder56.javaslc.Bot;
+import io.github.unknowncoder56.javaslc.BotBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class MockSLChatServerTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private MockSLChatServer server;
+    private Bot bot;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockSLChatServer(0, Duration.ofSeconds(1)).start();
+        server.addUser("bot", "TestBot", true, "server-1");
+        server.addUser("user", "Tester", false, "server-1");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (bot != null) {
+            bot.shutdown(TIMEOUT);
+        }
+        server.close();
+    }
+
+    @Test
+    void botRepliesToInjectedPrompt() throws Exception {
+        bot = BotBuilder.newInstance()
+                .setToken("token")
+                .setBotUserId("bot")
+                .setPrefix("!")
+                .setBaseUrl(server.getBaseUrl())
+                .setStartupTimeout(TIMEOUT)
+                .registerCommand("ping", context -> context.send("pong " + context.getOwnerId()))
+                .build();
+        bot.start();
+        assertEquals(Set.of("server-1"), bot.getStartupReport().getConnectedServerIds());
+
+        server.prompt("server-1", "user", "!ping");
+
+        JsonObject sent = server.pollSentMessage(TIMEOUT);
+        assertNotNull(sent, "The bot did not reply within " + TIMEOUT);
+        assertEquals("pong user", sent.get("content").getAsString());
+        assertEquals("server-1", sent.get("server_id").getAsString());
+        // The reply is echoed back to the bot as a prompt of its own, which must not trigger another reply.
+        assertNull(server.pollSentMessage(Duration.ofSeconds(1)));
+        assertEquals(1, server.getSentMessageCount());
+    }
+
+    @Test
+    void ignoresMessagesWithoutPrefix() throws Exception {
+        bot = BotBuilder.newInstance()
+                .setToken("token")
+                .setBotUserId("bot")
+                .setPrefix("!")
+                .setBaseUrl(server.getBaseUrl())
+                .setStartupTimeout(TIMEOUT)
+                .registerCommand("ping", context -> context.send("pong"))
+                .build();
+        bot.start();
+
+        server.prompt("server-1", "user", "ping");
+
+        assertNull(server.pollSentMessage(Duration.ofSeconds(1)));
+    }
+}
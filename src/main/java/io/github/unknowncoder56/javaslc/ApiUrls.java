@@ -0,0 +1,78 @@
+package io.github.unknowncoder56.javaslc;
+
+import java.net.URI;
+
+/**
+ * The URLs of the SLChat REST API and socket server used by a {@link Bot}, and the domain of its session cookies. They point to the public SLChat instance unless changed in {@link BotBuilder}, for example to run a bot against the {@code MockSLChatServer} of the {@code JavaSLC-mock} artifact.
+ */
+final class ApiUrls {
+
+    /**
+     * The default base URL of the REST API and the socket server.
+     */
+    static final String DEFAULT_BASE_URL = "https://slchat.alwaysdata.net";
+
+    /**
+     * The URLs of the public SLChat instance.
+     */
+    static final ApiUrls DEFAULT = new ApiUrls(DEFAULT_BASE_URL, null, null);
+
+    private final String baseUrl;
+    private final String socketUrl;
+    private final String cookieDomain;
+
+    /**
+     * Constructor to build the URLs.
+     * @param baseUrl The base URL of the REST API, without a trailing slash.
+     * @param socketUrl The URL of the socket server, or {@code null} to use the base URL.
+     * @param cookieDomain The domain of the session cookies, or {@code null} to use the host of the base URL.
+     * @throws IllegalArgumentException If the base URL is not a valid URL.
+     */
+    ApiUrls(String baseUrl, String socketUrl, String cookieDomain) throws IllegalArgumentException {
+        this.baseUrl = stripTrailingSlash(baseUrl);
+        this.socketUrl = socketUrl != null ? stripTrailingSlash(socketUrl) : this.baseUrl;
+        this.cookieDomain = cookieDomain != null ? cookieDomain : URI.create(this.baseUrl).getHost();
+    }
+
+    /**
+     * Private utility method to remove the trailing slash of a URL.
+     */
+    private static String stripTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    /**
+     * Gets the URL of the profile document of a user.
+     */
+    String user(String userId) {
+        return baseUrl + "/api/user/" + userId + "/";
+    }
+
+    /**
+     * Gets the URL joining a server.
+     */
+    String newServer() {
+        return baseUrl + "/api/new_server";
+    }
+
+    /**
+     * Gets the URL changing a property of the bot.
+     */
+    String change() {
+        return baseUrl + "/api/change";
+    }
+
+    /**
+     * Gets the URL of a socket with query parameters.
+     */
+    String socket(String query) {
+        return socketUrl + "?" + query;
+    }
+
+    /**
+     * Gets the domain of the session cookies.
+     */
+    String getCookieDomain() {
+        return cookieDomain;
+    }
+}
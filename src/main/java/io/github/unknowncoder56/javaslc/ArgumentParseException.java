@@ -0,0 +1,28 @@
+package io.github.unknowncoder56.javaslc;
+
+/**
+ * An exception thrown when the arguments of a command do not match its {@link CommandSignature}.
+ */
+public class ArgumentParseException extends Exception {
+
+    private final String usage;
+
+    /**
+     * Constructor to create an instance of the exception.
+     * @param message The description of the problem.
+     * @param usage The usage of the command.
+     */
+    public ArgumentParseException(String message, String usage) {
+        super(message);
+        this.usage = usage;
+    }
+
+    /**
+     * Gets the usage of the command whose arguments could not be parsed.
+     * @return The usage of the command.
+     * @see CommandSignature#getUsage()
+     */
+    public String getUsage() {
+        return usage;
+    }
+}
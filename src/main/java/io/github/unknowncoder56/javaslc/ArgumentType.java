@@ -0,0 +1,52 @@
+package io.github.unknowncoder56.javaslc;
+
+/**
+ * The enum containing the types of the arguments of a {@link CommandSignature}.
+ * @see CommandSignatureBuilder
+ */
+public enum ArgumentType {
+
+    /**
+     * A 32-bit integer, read with {@link ParsedArguments#getInt(String)}.
+     */
+    INTEGER("int"),
+
+    /**
+     * A 64-bit integer, read with {@link ParsedArguments#getLong(String)}.
+     */
+    LONG("long"),
+
+    /**
+     * A user ID, optionally written with a leading {@code @}, read with {@link ParsedArguments#getString(String)} or {@link ParsedArguments#getUser(String)}.
+     */
+    USER_ID("user"),
+
+    /**
+     * A constant of an enum, matched ignoring case, read with {@link ParsedArguments#getEnum(String, Class)}. Use {@link CommandSignatureBuilder#addEnumArgument(String, Class)} to add it.
+     */
+    ENUM("enum"),
+
+    /**
+     * A single argument, read with {@link ParsedArguments#getString(String)}.
+     */
+    STRING("string"),
+
+    /**
+     * All remaining text of the message as typed, read with {@link ParsedArguments#getString(String)}. It must be the last argument of a signature.
+     */
+    GREEDY_STRING("text...");
+
+    private final String displayName;
+
+    ArgumentType(String displayName) {
+        this.displayName = displayName;
+    }
+
+    /**
+     * Gets the name of the type shown in usage messages.
+     * @return The name of the type shown in usage messages.
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -0,0 +1,162 @@
+package io.github.unknowncoder56.javaslc;
+
+import java.text.MessageFormat;
+import java.util.ResourceBundle;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * A {@link System.Logger} which hands log records to a background thread that writes them to another logger. Logging only puts the record in a bounded queue, and a record is dropped rather than waiting if the queue is full, so a slow console or log file never blocks the threads of the bot. Messages passed as a {@link Supplier} are built on the background thread.
+ * @see BotBuilder#setAsyncLogging(int)
+ */
+public class AsyncLogger implements System.Logger, AutoCloseable {
+
+    private final System.Logger delegate;
+    /**
+     * The record queued by {@link AsyncLogger#close()} after the last record, telling the background thread to stop.
+     */
+    private static final LogRecord END = new LogRecord(null, null, null);
+    private static final long CLOSE_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(5);
+
+    private final BlockingQueue<LogRecord> queue;
+    private final Thread writer;
+    private final LongAdder dropped = new LongAdder();
+    private volatile boolean closed;
+
+    /**
+     * A queued record.
+     */
+    private static final class LogRecord {
+
+        private final Level level;
+        private final Supplier<String> message;
+        private final Throwable thrown;
+
+        private LogRecord(Level level, Supplier<String> message, Throwable thrown) {
+            this.level = level;
+            this.message = message;
+            this.thrown = thrown;
+        }
+    }
+
+    /**
+     * Constructor to build an async logger and start its background thread.
+     * @param delegate The logger the records are written to.
+     * @param queueCapacity The maximum number of records waiting to be written.
+     */
+    public AsyncLogger(System.Logger delegate, int queueCapacity) {
+        this.delegate = delegate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.writer = new Thread(this::drain, "javaslc-log");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public boolean isLoggable(Level level) {
+        return delegate.isLoggable(level);
+    }
+
+    @Override
+    public void log(Level level, Supplier<String> msgSupplier) {
+        enqueue(level, msgSupplier, null);
+    }
+
+    @Override
+    public void log(Level level, Supplier<String> msgSupplier, Throwable thrown) {
+        enqueue(level, msgSupplier, thrown);
+    }
+
+    @Override
+    public void log(Level level, ResourceBundle bundle, String msg, Throwable thrown) {
+        enqueue(level, () -> localize(bundle, msg), thrown);
+    }
+
+    @Override
+    public void log(Level level, ResourceBundle bundle, String format, Object... params) {
+        enqueue(level, () -> params == null || params.length == 0 ? localize(bundle, format) : MessageFormat.format(localize(bundle, format), params), null);
+    }
+
+    /**
+     * Stops the background thread after it has written the queued records, waiting for it for up to 5 seconds. Records logged afterwards are dropped.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        long deadline = System.currentTimeMillis() + CLOSE_TIMEOUT_MILLIS;
+        try {
+            // The end record is queued behind the pending records instead of interrupting the thread, which could abort a write in progress.
+            if (queue.offer(END, CLOSE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                writer.join(Math.max(1, deadline - System.currentTimeMillis()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Gets the number of records dropped because the queue was full or the logger was closed.
+     * @return The number of dropped records.
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Private utility method to queue a record without blocking.
+     */
+    private void enqueue(Level level, Supplier<String> message, Throwable thrown) {
+        if (!delegate.isLoggable(level)) {
+            return;
+        }
+        if (closed || !queue.offer(new LogRecord(level, message, thrown))) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Private utility method run by the background thread, writing records until it takes the end record queued by {@link AsyncLogger#close()}.
+     */
+    private void drain() {
+        while (true) {
+            LogRecord record;
+            try {
+                record = queue.take();
+            } catch (InterruptedException e) {
+                // Only close() stops the thread, so the records queued before it are not lost.
+                continue;
+            }
+            if (record == END) {
+                break;
+            }
+            try {
+                if (record.thrown != null) {
+                    delegate.log(record.level, record.message, record.thrown);
+                } else {
+                    delegate.log(record.level, record.message);
+                }
+            } catch (RuntimeException e) {
+                // A failing message supplier or logger must not stop the background thread.
+                dropped.increment();
+            }
+        }
+    }
+
+    /**
+     * Private utility method to look a message up in a resource bundle, if there is one.
+     */
+    private static String localize(ResourceBundle bundle, String msg) {
+        return bundle != null && msg != null && bundle.containsKey(msg) ? bundle.getString(msg) : msg;
+    }
+}
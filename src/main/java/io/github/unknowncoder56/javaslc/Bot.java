@@ -4,38 +4,73 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import io.github.unknowncoder56.javaslc.metrics.Counter;
+import io.github.unknowncoder56.javaslc.metrics.Histogram;
+import io.github.unknowncoder56.javaslc.metrics.MetricsRegistry;
 import io.socket.client.IO;
+import io.socket.client.Manager;
 import io.socket.client.Socket;
-import org.apache.hc.client5.http.classic.methods.HttpGet;
-import org.apache.hc.client5.http.classic.methods.HttpPost;
-import org.apache.hc.client5.http.cookie.BasicCookieStore;
-import org.apache.hc.client5.http.entity.UrlEncodedFormEntity;
-import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
-import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
-import org.apache.hc.client5.http.impl.cookie.BasicClientCookie;
-import org.apache.hc.core5.http.ClassicHttpResponse;
 import org.apache.hc.core5.http.NameValuePair;
 import org.apache.hc.core5.http.message.BasicNameValuePair;
 import org.json.JSONObject;
 
 import java.io.IOException;
+import java.lang.System.Logger.Level;
 import java.net.URISyntaxException;
 import java.util.*;
+import java.time.Duration;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 
 /**
  * The main class of the library containing all important methods, like to run the bot. This class cannot be instantiated directly, use {@link BotBuilder} instead.
  * @see BotBuilder
  * @see User
  */
-public class Bot extends User {
+public class Bot extends User implements AutoCloseable {
 
-    private String prefix;
+    /**
+     * The time {@link Bot#close()} waits for the queued messages to be handled and sent.
+     */
+    static final Duration DEFAULT_SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+
+    private final PrefixResolver prefixes;
     private StartListener startListener;
-    private final String token;
+    private final Session session;
     private final ArrayList<MessageListener> messageListeners;
     private final ArrayList<CommandListener> commandListeners;
-    private final Map<String, Socket> serverMap = new HashMap<>();
+    private final ServerRegistry servers = new ServerRegistry();
+    private final Map<String, CompletableFuture<Void>> pendingJoins = new ConcurrentHashMap<>();
+    private final HttpTransport transport;
+    private final ApiUrls urls;
+    private final MetricsRegistry metrics;
+    private final StateStore stateStore;
+    private final Cooldowns cooldowns;
+    private final Counter throttledCount;
+    private final Histogram serverListLatency;
+    private final Histogram unroutedCommandLatency;
+    private final Counter filteredCount;
+    private volatile MessageFilter[] messageFilters = new MessageFilter[0];
+    private final Dispatcher dispatcher;
+    private final CommandRouter commandRouter;
+    private final OutboundWriter.Settings sendSettings;
+    private final RequestScheduler requestScheduler;
+    private final ServerConnection.Settings connectionSettings;
+    private ConnectionListener connectionListener;
+    private final SocketPool socketPool;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final AtomicBoolean shuttingDown = new AtomicBoolean();
+    private final CountDownLatch terminated = new CountDownLatch(1);
+    private volatile StartupReport startupReport;
 
     /**
      * The enum containing all possible property change keys.
@@ -71,218 +106,537 @@ public class Bot extends User {
     /**
      * The constructor of the {@link Bot} class. This constructor has default-level access and is only used by the {@link BotBuilder} class.
      */
-    Bot(String prefix, StartListener startListener, ErrorListener errorListener, String token, String userId, ArrayList<MessageListener> messageListeners, ArrayList<CommandListener> commandListeners) {
-        super(userId, errorListener);
-        this.prefix = prefix;
+    Bot(PrefixResolver prefixes, StartListener startListener, ErrorListener errorListener, String token, String userId, ArrayList<MessageListener> messageListeners, ArrayList<CommandListener> commandListeners, HttpTransport transport, UserCache userCache, Function<Bot, Dispatcher> dispatcherFactory, CommandRouter commandRouter, OutboundWriter.Settings sendSettings, RequestScheduler requestScheduler, ServerConnection.Settings connectionSettings, ConnectionListener connectionListener, ApiUrls urls, MetricsRegistry metrics, BotLogger logger, StateStore stateStore, Cooldowns cooldowns) {
+        super(userId, errorListener, userCache, logger);
+        this.transport = transport;
+        this.urls = urls;
+        this.metrics = metrics;
+        this.stateStore = stateStore;
+        this.cooldowns = cooldowns;
+        this.throttledCount = metrics.counter("javaslc.commands.throttled");
+        this.serverListLatency = metrics.histogram("javaslc.http.latency", "endpoint", "user");
+        this.unroutedCommandLatency = metrics.histogram("javaslc.command.latency", "command", "*");
+        this.filteredCount = metrics.counter("javaslc.messages.filtered");
+        this.dispatcher = dispatcherFactory.apply(this);
+        metrics.gauge("javaslc.dispatch.queue.depth", dispatcher::getQueueDepth);
+        metrics.gauge("javaslc.dispatch.dispatched", dispatcher::getDispatchedCount);
+        metrics.gauge("javaslc.dispatch.dropped", dispatcher::getDroppedCount);
+        metrics.gauge("javaslc.dispatch.rejected", dispatcher::getRejectedCount);
+        metrics.gauge("javaslc.dispatch.handled", dispatcher::getHandledCount);
+        metrics.gauge("javaslc.servers", servers::size);
+        this.commandRouter = commandRouter;
+        this.sendSettings = sendSettings;
+        this.requestScheduler = requestScheduler;
+        this.connectionSettings = connectionSettings;
+        this.connectionListener = connectionListener;
+        this.socketPool = connectionSettings.getMultiplexedConnections() > 0 ? new SocketPool(connectionSettings.getMultiplexedConnections(), () -> openSocket("user=" + getBotUserId(), true)) : null;
+        this.prefixes = prefixes;
         this.startListener = startListener;
-        this.token = token;
+        this.session = new Session(token, userId, urls.getCookieDomain());
         this.messageListeners = messageListeners;
         this.commandListeners = commandListeners;
     }
 
     /**
      * The method to run the bot. This method will throw a {@link RuntimeException} if the prefix, token or bot user ID is not set in the {@link BotBuilder} or later in {@link Bot}.
-     * Note: This is a blocking method. Use it as the last method call in your thread.
-     * @throws RuntimeException If the prefix, token or bot user ID is not set.
+     * Note: This is a blocking method. Use it as the last method call in your thread. It is equivalent to {@link Bot#start()} followed by {@link Bot#awaitTermination()}, and returns when the bot is shut down. If the thread is interrupted, or if the bot fails to start, the bot is shut down.
+     * @throws RuntimeException If the prefix, token or bot user ID is not set, or the server list could not be parsed. The bot is shut down first.
      */
     public void run() throws RuntimeException {
-        if (prefix.isEmpty()) {
+        try {
+            start();
+        } catch (IOException | RuntimeException e) {
+            if (errorListener != null) {
+                errorListener.onError(e, "run");
+            }
+            logger.log(Level.ERROR, () -> "Failed to start bot: " + e.getMessage(), e);
+            // Shutting down releases the threads of the bot and any thread waiting in awaitTermination().
+            shutdown(DEFAULT_SHUTDOWN_TIMEOUT);
+            if (e instanceof RuntimeException) {
+                throw (RuntimeException) e;
+            }
+            return;
+        }
+        try {
+            awaitTermination();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            shutdown(DEFAULT_SHUTDOWN_TIMEOUT);
+        }
+    }
+
+    /**
+     * Starts the bot without blocking. The server list of the bot is fetched, the sockets of all servers are connected in parallel (up to {@link BotBuilder#setStartupConcurrency(int)} at once), and once all of them have connected or the startup timeout has elapsed the {@link StartListener} is called with a {@link StartupReport}. The bot runs on its own threads until {@link Bot#shutdown(Duration)} is called.
+     * @throws RuntimeException If the prefix, token or bot user ID is not set.
+     * @throws IllegalStateException If the bot was already started or shut down.
+     * @throws IOException If the server list of the bot could not be fetched. The bot is then not started, and this method can be called again.
+     */
+    public void start() throws RuntimeException, IOException {
+        if (!prefixes.hasPrefixes()) {
             throw new RuntimeException("Prefix not set.");
         }
-        if (token.isEmpty()) {
+        if (session.getToken().isEmpty()) {
             throw new RuntimeException("Token not set.");
         }
         if (userId.isEmpty()) {
             throw new RuntimeException("Bot user ID not set.");
         }
-        try (CloseableHttpClient client = HttpClientBuilder.create().build()) {
-            String responseJsonString = client.execute(new HttpGet("https://slchat.alwaysdata.net/api/user/" + userId + "/"), classicHttpResponse -> new String(classicHttpResponse.getEntity().getContent().readAllBytes()));
-            JsonObject responseJson = JsonParser.parseString(responseJsonString).getAsJsonObject();
-            JsonArray servers = responseJson.getAsJsonArray("servers");
-            for (JsonElement server : servers) {
-                String serverId = server.getAsString();
-                if (!serverMap.containsKey(serverId)) {
-                    makeSocketForServer(serverId);
-                }
+        if (shuttingDown.get()) {
+            throw new IllegalStateException("Bot shut down.");
+        }
+        if (!started.compareAndSet(false, true)) {
+            throw new IllegalStateException("Bot already started.");
+        }
+        long startNanos = System.nanoTime();
+        JsonArray serverList;
+        try {
+            String responseJsonString = transport.get(urls.user(userId));
+            serverList = JsonParser.parseString(responseJsonString).getAsJsonObject().getAsJsonArray("servers");
+        } catch (IOException | RuntimeException e) {
+            // Nothing was started yet, so the bot can be started again.
+            started.set(false);
+            throw e;
+        } finally {
+            serverListLatency.recordSince(startNanos);
+        }
+        Duration serverListDuration = Duration.ofNanos(System.nanoTime() - startNanos);
+        Map<String, CompletableFuture<ServerConnection>> barriers = new LinkedHashMap<>();
+        for (JsonElement server : serverList) {
+            String serverId = server.getAsString();
+            if (!servers.contains(serverId)) {
+                barriers.putIfAbsent(serverId, new CompletableFuture<>());
             }
-            if (startListener != null) {
-                startListener.onStart();
+        }
+        Queue<Map.Entry<String, CompletableFuture<ServerConnection>>> pending = new ConcurrentLinkedQueue<>(barriers.entrySet());
+        int concurrency = connectionSettings.getStartupConcurrency() > 0 ? Math.min(connectionSettings.getStartupConcurrency(), barriers.size()) : barriers.size();
+        for (int i = 0; i < concurrency; i++) {
+            connectNext(pending);
+        }
+        Duration startupTimeout = connectionSettings.getStartupTimeout();
+        try {
+            CompletableFuture.allOf(barriers.values().toArray(new CompletableFuture<?>[0])).get(Math.max(0, startupTimeout.toNanos() - (System.nanoTime() - startNanos)), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // The servers which failed or timed out are listed in the startup report.
+        }
+        Map<String, Duration> connectDurations = new LinkedHashMap<>();
+        Map<String, Exception> failures = new LinkedHashMap<>();
+        barriers.forEach((serverId, barrier) -> {
+            if (!barrier.isDone()) {
+                failures.put(serverId, new TimeoutException("Server " + serverId + " did not connect within " + startupTimeout.toMillis() + "ms"));
+                return;
             }
-            while (true) {
-                try {
-                    Thread.sleep(1000);
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                }
+            try {
+                connectDurations.put(serverId, barrier.join().getConnectDuration());
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                failures.put(serverId, cause instanceof Exception ? (Exception) cause : new Exception(cause));
             }
-        } catch (IOException e) {
-            if (errorListener != null) {
-                errorListener.onError(e, "run");
+        });
+        startupReport = new StartupReport(serverListDuration, Duration.ofNanos(System.nanoTime() - startNanos), connectDurations, failures);
+        logger.log(Level.INFO, () -> "Connected to " + connectDurations.size() + " of " + barriers.size() + " servers in " + startupReport.getStartupDuration().toMillis() + "ms");
+        if (startListener != null) {
+            startListener.onStart(startupReport);
+        }
+    }
+
+    /**
+     * Private utility method to make the socket of the next server waiting to connect during startup, and to make the one after it when the socket has connected or failed, which keeps the number of sockets connecting at once constant.
+     */
+    private void connectNext(Queue<Map.Entry<String, CompletableFuture<ServerConnection>>> pending) {
+        Map.Entry<String, CompletableFuture<ServerConnection>> next = pending.poll();
+        if (next == null) {
+            return;
+        }
+        ServerConnection connection = makeSocketForServer(next.getKey());
+        if (connection == null) {
+            // The server may have been joined concurrently, in which case its existing connection is awaited.
+            connection = servers.get(next.getKey());
+        }
+        if (connection == null) {
+            next.getValue().completeExceptionally(new IllegalStateException("Failed to make socket for server " + next.getKey()));
+            connectNext(pending);
+            return;
+        }
+        connection.getReadyFuture().whenComplete((ready, e) -> {
+            if (e == null) {
+                next.getValue().complete(ready);
+            } else {
+                next.getValue().completeExceptionally(e);
+            }
+            connectNext(pending);
+        });
+    }
+
+    /**
+     * Waits until the bot is shut down.
+     * @throws InterruptedException If the current thread is interrupted while waiting.
+     */
+    public void awaitTermination() throws InterruptedException {
+        terminated.await();
+    }
+
+    /**
+     * Waits until the bot is shut down, or the timeout elapses.
+     * @param timeout The maximum time to wait.
+     * @return Whether the bot was shut down.
+     * @throws InterruptedException If the current thread is interrupted while waiting.
+     */
+    public boolean awaitTermination(Duration timeout) throws InterruptedException {
+        return terminated.await(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Shuts the bot down. New messages are no longer dispatched, the messages already queued are handled, the messages queued for sending are sent, then the sockets, the HTTP connection pool and the threads of the bot are closed, and the changed keys of the {@link StateStore} are written. Calling this method again has no effect.
+     * @param timeout The maximum time to wait for the queued messages to be handled and sent and for the state store to be written.
+     * @return Whether all queued messages were handled and sent and the state store was written in time.
+     */
+    public boolean shutdown(Duration timeout) {
+        if (!shuttingDown.compareAndSet(false, true)) {
+            return true;
+        }
+        long deadline = System.nanoTime() + timeout.toNanos();
+        boolean drained = true;
+        try {
+            dispatcher.shutdown();
+            drained = dispatcher.awaitTermination(deadline);
+            List<CompletableFuture<Void>> flushing = new ArrayList<>();
+            servers.getConnections().forEach(connection -> flushing.add(connection.getWriter().flush()));
+            CompletableFuture.allOf(flushing.toArray(new CompletableFuture<?>[0])).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            drained = false;
+        } catch (ExecutionException | TimeoutException e) {
+            drained = false;
+        } finally {
+            for (String serverId : servers.getServerIds()) {
+                disconnect(serverId);
+            }
+            if (socketPool != null) {
+                socketPool.close();
+            }
+            sendSettings.shutdown();
+            connectionSettings.shutdown();
+            transport.close();
+            // Closed after the handlers finished, so their last writes are flushed.
+            if (stateStore != null && !stateStore.close(Duration.ofNanos(Math.max(0, deadline - System.nanoTime())))) {
+                drained = false;
             }
-            System.out.println("Failed to start bot: " + e.getMessage());
+            if (!drained) {
+                logger.log(Level.WARNING, () -> "Bot shut down before all queued messages were handled and sent");
+            }
+            logger.close();
+            terminated.countDown();
         }
+        return drained;
+    }
+
+    /**
+     * Shuts the bot down, waiting up to 10 seconds for the queued messages to be handled and sent.
+     * @see Bot#shutdown(Duration)
+     */
+    @Override
+    public void close() {
+        shutdown(DEFAULT_SHUTDOWN_TIMEOUT);
     }
 
     /**
-     * This private method handles new messages (and commands). This method is called by socket event handlers for each server.
+     * This method handles new messages (and commands). This method is called by the {@link Dispatcher} for messages received by the socket event handlers of each server. It has default-level access so the benchmarks can drive it directly.
+     * One context is built per message and shared by all listeners: the {@link CommandContext} of a command is also the context passed to the {@link MessageListener}s.
      */
-    private void handleMessage(JsonObject prompt) {
-        JsonObject message = prompt.get("message").getAsJsonObject();
-        String serverId = prompt.get("server_id").getAsString();
+    void handleMessage(InboundMessage message) {
+        String serverId = message.getServerId();
         try {
-            if (!Objects.equals(message.get("owner").getAsString(), getBotUserId())) {
-                if (message.get("content").getAsString().startsWith(prefix)) {
-                    String[] commandParts = message.get("content").getAsString().split(" ");
-                    if (commandParts.length > 1) {
-                        String[] arguments = Arrays.copyOfRange(commandParts, 1, commandParts.length - 1);
-                        commandListeners.forEach(commandListener -> commandListener.onCommand(new CommandContext(message, serverId, Bot.this, commandParts[0].substring(1), arguments)));
-                    } else {
-                        commandListeners.forEach(commandListener -> commandListener.onCommand(new CommandContext(message, serverId, Bot.this, commandParts[0].substring(1))));
-                    }
+            String content = message.getContent();
+            MessageContext context = null;
+            if (!Objects.equals(message.getOwner(), getBotUserId())) {
+                int start = prefixes.match(serverId, content);
+                if (start >= 0) {
+                    context = handleCommand(message, TokenizedCommand.tokenize(content, start), start);
+                }
+            }
+            if (!messageListeners.isEmpty()) {
+                if (context == null) {
+                    context = new MessageContext(message, Bot.this);
+                }
+                for (int i = 0; i < messageListeners.size(); i++) {
+                    messageListeners.get(i).onMessage(context);
                 }
             }
-            messageListeners.forEach(messageListener -> messageListener.onMessage(new MessageContext(message, serverId, Bot.this)));
         } catch (Exception e) {
             if (errorListener != null) {
                 errorListener.onError(e, "checkNewCommand");
             }
-            System.out.println("Failed to handle message from server " + serverId + ": " + e.getMessage());
+            logger.log(Level.WARNING, () -> "Failed to handle message from server " + serverId + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * This private method routes a command to its registered handler, parsing its arguments if it was registered with a {@link CommandSignature}, or passes it to the {@link CommandListener}s if no handler matches. Commands over their cooldown limits are dropped. It returns the context it built, to be reused for the {@link MessageListener}s, or {@code null} if it built none.
+     */
+    private CommandContext handleCommand(InboundMessage message, TokenizedCommand tokens, int prefixLength) {
+        CommandRouter.Route route = commandRouter.route(tokens);
+        if (route == null && commandListeners.isEmpty()) {
+            return null;
+        }
+        // Limits are checked on the routed command, so aliases, letter case and whitespace do not get around them.
+        String registeredCommand = route != null ? route.getCommand() : commandRouter.key(tokens.get(0));
+        if (cooldowns != null && cooldowns.tryAcquire(registeredCommand, message.getServerId(), message.getOwner()) > 0) {
+            throttledCount.increment();
+            return null;
+        }
+        long start = System.nanoTime();
+        if (route == null) {
+            CommandContext context = new CommandContext(message, Bot.this, tokens, tokens.get(0), registeredCommand, 1);
+            try {
+                for (int i = 0; i < commandListeners.size(); i++) {
+                    commandListeners.get(i).onCommand(context);
+                }
+            } finally {
+                unroutedCommandLatency.recordSince(start);
+            }
+            return context;
+        }
+        String commandPath = tokens.get(0);
+        for (int i = 1; i <= route.getDepth(); i++) {
+            commandPath += " " + tokens.get(i);
+        }
+        CommandContext context = new CommandContext(message, Bot.this, tokens, commandPath, registeredCommand, 1 + route.getDepth());
+        if (route.getSignature() != null) {
+            try {
+                context.setParsedArguments(route.getSignature().parse(context));
+            } catch (ArgumentParseException e) {
+                context.send(e.getMessage() + " Usage: " + message.getContent().substring(0, prefixLength) + commandPath + " " + e.getUsage());
+                return context;
+            }
         }
+        try {
+            route.getHandler().onCommand(context);
+        } finally {
+            route.getLatency().recordSince(start);
+        }
+        return context;
     }
 
     /**
      * This method sends a message to a server if the bot is in it. If not this method will fail, add it to a server with {@link Bot#join(String)}.
+     * Messages to one server are queued and written in order by a single writer, in batches when they arrive in bursts.
      * @param message The message to send.
      * @param serverId The ID of the server to send the message to.
-     * @return A {@link CompletableFuture} that will be completed when the message is sent.
+     * @return A {@link CompletableFuture} that will be completed when the message is written to the socket, or when the server acknowledges it if {@link BotBuilder#setSendAckTimeout(Duration)} is set. It is completed exceptionally if the message could not be sent.
      * @see Bot#join(String)
      */
     public CompletableFuture<Void> send(String message, String serverId) {
-        return CompletableFuture.runAsync(() -> {
-            if (serverMap.containsKey(serverId)) {
-                try {
-                    JSONObject payload = new JSONObject();
-                    payload.put("content", message);
-                    payload.put("server_id", serverId);
-                    payload.put("token", token);
-                    payload.put("op", getBotUserId());
-                    serverMap.get(serverId).emit("message", payload);
-                } catch (Exception e) {
-                    errorListener.onError(e, "send");
-                    System.out.println("Failed to send message to server " + serverId + ": " + e.getMessage());
-                }
-            } else {
-                if (errorListener != null) {
-                    errorListener.onError(new Exception("Bot is not in server " + serverId), "send");
-                }
-                System.out.println("Bot is not in server " + serverId);
+        ServerConnection connection = servers.get(serverId);
+        if (connection == null) {
+            Exception e = new Exception("Bot is not in server " + serverId);
+            if (errorListener != null) {
+                errorListener.onError(e, "send");
             }
-        });
+            logger.log(Level.WARNING, () -> "Bot is not in server " + serverId);
+            return CompletableFuture.failedFuture(e);
+        }
+        return connection.getWriter().enqueue(message);
     }
 
     /**
-     * This method joins a server if not already joined by the bot.
+     * This method joins a server if not already joined by the bot. Concurrent calls for the same server share one request and make one socket.
+     * Calls are rate limited, retried after a backoff on 429, 5xx or network errors, and rejected while the backend is failing repeatedly, as configured in {@link BotBuilder}.
      * @param serverId The ID of the server to join.
      * @return A {@link CompletableFuture} that will be completed when the bot has joined the server.
      */
     public CompletableFuture<Void> join(String serverId) {
-        return CompletableFuture.runAsync(() -> {
-            if (!serverMap.containsKey(serverId)) {
-                BasicCookieStore cookieStore = new BasicCookieStore();
-                BasicClientCookie tokenCookie = new BasicClientCookie("token", token);
-                tokenCookie.setDomain("slchat.alwaysdata.net");
-                tokenCookie.setAttribute("domain", "true");
-                tokenCookie.setPath("/");
-                BasicClientCookie opCookie = new BasicClientCookie("op", getBotUserId());
-                opCookie.setDomain("slchat.alwaysdata.net");
-                opCookie.setAttribute("domain", "true");
-                opCookie.setPath("/");
-                cookieStore.addCookie(tokenCookie);
-                cookieStore.addCookie(opCookie);
-                try (CloseableHttpClient client = HttpClientBuilder.create().setDefaultCookieStore(cookieStore).build()) {
-                    HttpPost post = new HttpPost("https://slchat.alwaysdata.net/api/new_server");
-                    post.setEntity(new UrlEncodedFormEntity(List.of((NameValuePair) new BasicNameValuePair("server_id", serverId))));
-                    post.setHeader("Content-Type", "application/x-www-form-urlencoded");
-                    ClassicHttpResponse response = client.execute(post, classicHttpResponse -> classicHttpResponse);
-                    int code = response.getCode();
-                    if ((400 <= code && code < 500) || (500 <= code && code < 600)) {
-                        throw new Exception("(" + code + ") " + response.getReasonPhrase());
-                    }
-                    makeSocketForServer(serverId);
-                    System.out.println("Current server IDs: " + serverMap.keySet());
-                } catch (Exception e) {
-                    if (errorListener != null) {
-                        errorListener.onError(e, "join");
-                    }
-                    System.out.println("Failed to join server " + serverId + ": " + e.getMessage());
-                }
-            } else {
-                if (errorListener != null) {
-                    errorListener.onError(new Exception("Bot is already in server " + serverId), "join");
-                }
-                System.out.println("Bot is already in server " + serverId);
+        if (servers.contains(serverId)) {
+            if (errorListener != null) {
+                errorListener.onError(new Exception("Bot is already in server " + serverId), "join");
+            }
+            logger.log(Level.WARNING, () -> "Bot is already in server " + serverId);
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<Void> pendingJoin = new CompletableFuture<>();
+        CompletableFuture<Void> existingJoin = pendingJoins.putIfAbsent(serverId, pendingJoin);
+        if (existingJoin != null) {
+            return existingJoin;
+        }
+        requestScheduler.submit(Endpoint.JOIN, "", () -> transport.postAsync(urls.newServer(), List.of((NameValuePair) new BasicNameValuePair("server_id", serverId)), session.current().newCookieStore()).thenRun(() -> {
+            makeSocketForServer(serverId);
+            logger.log(Level.DEBUG, () -> "Current server IDs: " + servers.getServerIds());
+        })).exceptionally(e -> {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            if (errorListener != null) {
+                errorListener.onError(cause instanceof Exception ? (Exception) cause : new Exception(cause), "join");
             }
+            logger.log(Level.WARNING, () -> "Failed to join server " + serverId + ": " + cause.getMessage(), cause);
+            return null;
+        }).whenComplete((ignored, e) -> {
+            pendingJoins.remove(serverId, pendingJoin);
+            pendingJoin.complete(null);
         });
+        return pendingJoin;
+    }
+
+    /**
+     * This method closes the socket of a server and removes it from the servers of the bot, without waiting for its queued messages to be sent. The bot stays a member of the server on SLChat and can reconnect to it with {@link Bot#join(String)}.
+     * @param serverId The ID of the server to disconnect from.
+     * @return Whether the bot was connected to the server.
+     */
+    public boolean disconnect(String serverId) {
+        ServerConnection connection = servers.leave(serverId);
+        if (connection == null) {
+            return false;
+        }
+        metrics.removeTagged("server", serverId);
+        sendSettings.forgetServer(serverId);
+        SharedSocket socket = connection.getSharedSocket();
+        boolean empty = socket.unsubscribe(connection);
+        if (socket.isMultiplexed()) {
+            // The shared socket stays open for the other servers, and for the next servers put on it by the pool.
+            socketPool.release(socket);
+            socket.getSocket().emit(SharedSocket.UNSUBSCRIBE_EVENT, subscription(serverId));
+        } else if (empty) {
+            socket.getSocket().off();
+            socket.getSocket().io().off();
+            socket.getSocket().close();
+        }
+        connection.transition(ConnectionState.CLOSED, null);
+        notifyConnectionListener(connection, ConnectionState.CLOSED);
+        return true;
     }
 
     /**
      * This method changes a bot property defined in the {@link ChangeKey} enum.
+     * Calls are rate limited, retried after a backoff on 429, 5xx or network errors, and rejected while the backend is failing repeatedly, as configured in {@link BotBuilder}.
      * @param changeKey The key of the property to change.
      * @param changeValue The value to change the key to.
      * @return A {@link CompletableFuture} that will be completed when the value is changed.
      * @see ChangeKey
      */
     public CompletableFuture<Void> change(ChangeKey changeKey, String changeValue) {
-        return CompletableFuture.runAsync(() -> {
-            BasicCookieStore cookieStore = new BasicCookieStore();
-            BasicClientCookie tokenCookie = new BasicClientCookie("token", token);
-            tokenCookie.setDomain("slchat.alwaysdata.net");
-            tokenCookie.setAttribute("domain", "true");
-            tokenCookie.setPath("/");
-            BasicClientCookie opCookie = new BasicClientCookie("op", getBotUserId());
-            opCookie.setDomain("slchat.alwaysdata.net");
-            opCookie.setAttribute("domain", "true");
-            opCookie.setPath("/");
-            cookieStore.addCookie(tokenCookie);
-            cookieStore.addCookie(opCookie);
-            try (CloseableHttpClient client = HttpClientBuilder.create().setDefaultCookieStore(cookieStore).build()) {
-                HttpPost post = new HttpPost("https://slchat.alwaysdata.net/api/change");
-                post.setEntity(new UrlEncodedFormEntity(Arrays.asList(
-                        (NameValuePair) new BasicNameValuePair("change_key", changeKey.getKeyString()),
-                        new BasicNameValuePair("change_value", changeValue),
-                        new BasicNameValuePair("token", token),
-                        new BasicNameValuePair("op", getBotUserId())
-                )));
-                post.setHeader("Content-Type", "application/x-www-form-urlencoded");
-                ClassicHttpResponse response = client.execute(post, classicHttpResponse -> classicHttpResponse);
-                int code = response.getCode();
-                if ((400 <= code && code < 500) || (500 <= code && code < 600)) {
-                    throw new Exception("(" + code + ") " + response.getReasonPhrase());
-                }
-                System.out.println("Changed key " + changeKey.name() + " into " + changeValue);
-            } catch (Exception e) {
-                if (errorListener != null) {
-                    errorListener.onError(e, "change");
-                }
-                System.out.println("Failed to change key " + changeKey.name() + " into " + changeValue + ": " + e.getMessage());
+        return requestScheduler.submit(Endpoint.CHANGE, "", () -> {
+            Session.Credentials credentials = session.current();
+            List<NameValuePair> form = new ArrayList<>(4);
+            form.add(new BasicNameValuePair("change_key", changeKey.getKeyString()));
+            form.add(new BasicNameValuePair("change_value", changeValue));
+            // The change endpoint reads the token and user ID from the form, not from the session cookies sent with every call, so they are sent both ways, as the API has always been called.
+            form.addAll(credentials.getFormFields());
+            return transport.postAsync(urls.change(), form, credentials.newCookieStore()).thenRun(() -> {
+                userCache.invalidate(getBotUserId());
+                logger.log(Level.INFO, () -> "Changed key " + changeKey.name() + " into " + changeValue);
+            });
+        }).exceptionally(e -> {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            if (errorListener != null) {
+                errorListener.onError(cause instanceof Exception ? (Exception) cause : new Exception(cause), "change");
             }
+            logger.log(Level.WARNING, () -> "Failed to change key " + changeKey.name() + " into " + changeValue + ": " + cause.getMessage(), cause);
+            return null;
         });
     }
 
     /**
      * Gets the prefix of the bot.
-     * @return The prefix of the bot.
+     * @return The first default prefix of the bot, or an empty string if none is set.
+     * @see Bot#getPrefixes()
      */
     public String getPrefix() {
-        return prefix;
+        List<String> defaultPrefixes = prefixes.getPrefixes();
+        return defaultPrefixes.isEmpty() ? "" : defaultPrefixes.get(0);
     }
 
     /**
-     * Sets the prefix of the bot.
-     * @param prefix The prefix to set.
+     * Sets the prefix of the bot, replacing all default prefixes. The change is seen atomically by the threads handling messages.
+     * @param prefix The prefix to set, or an empty string to remove the default prefixes.
      */
     public void setPrefix(String prefix) {
-        this.prefix = prefix;
+        prefixes.setPrefixes(List.of(prefix));
+    }
+
+    /**
+     * Gets the default prefixes of the bot, used in all servers without their own prefixes.
+     * @return An unmodifiable list of the default prefixes, in the order they were added.
+     */
+    public List<String> getPrefixes() {
+        return prefixes.getPrefixes();
+    }
+
+    /**
+     * Adds a default prefix to the bot. When several prefixes match a message, the longest one is used.
+     * @param prefix The prefix to add.
+     */
+    public void addPrefix(String prefix) {
+        prefixes.addPrefix(prefix);
+    }
+
+    /**
+     * Removes a default prefix from the bot.
+     * @param prefix The prefix to remove.
+     * @return Whether the prefix was set.
+     */
+    public boolean removePrefix(String prefix) {
+        return prefixes.removePrefix(prefix);
+    }
+
+    /**
+     * Gets the prefixes of a server.
+     * @param serverId The ID of the server.
+     * @return An unmodifiable list of the prefixes of the server, or the default prefixes if the server has none of its own.
+     */
+    public List<String> getServerPrefixes(String serverId) {
+        List<String> serverPrefixes = prefixes.getServerPrefixes(serverId);
+        return serverPrefixes != null ? serverPrefixes : prefixes.getPrefixes();
+    }
+
+    /**
+     * Sets the prefixes of a server, which override the default prefixes in it. The change is seen atomically by the threads handling messages.
+     * @param serverId The ID of the server.
+     * @param serverPrefixes The prefixes of the server. Without any, the bot only reacts to mentions in the server, if enabled.
+     */
+    public void setServerPrefixes(String serverId, String... serverPrefixes) {
+        prefixes.setServerPrefixes(serverId, Arrays.asList(serverPrefixes));
+    }
+
+    /**
+     * Removes the prefixes of a server, which then uses the default prefixes again.
+     * @param serverId The ID of the server.
+     * @return Whether the server had its own prefixes.
+     */
+    public boolean removeServerPrefixes(String serverId) {
+        return prefixes.removeServerPrefixes(serverId);
+    }
+
+    /**
+     * Checks whether mentioning the bot is accepted as a prefix.
+     * @return Whether mentions are accepted as a prefix.
+     */
+    public boolean isMentionPrefix() {
+        return prefixes.getMention() != null;
+    }
+
+    /**
+     * Sets whether mentioning the bot, with {@code @} followed by the bot user ID and whitespace, is accepted as a prefix in all servers.
+     * @param mentionPrefix Whether mentions are accepted as a prefix.
+     */
+    public void setMentionPrefix(boolean mentionPrefix) {
+        prefixes.setMention(mentionPrefix ? "@" + getBotUserId() : null);
+    }
+
+    /**
+     * Finds the command of a message the same way it is found when the message is handled. This method has default-level access and is only used inside the library.
+     * @return The registered path of the routed command, the normalized command name if no registered command matches, or {@code null} if the message is not a command of the bot.
+     */
+    String resolveCommand(InboundMessage message) {
+        String content = message.getContent();
+        if (content == null || Objects.equals(message.getOwner(), getBotUserId())) {
+            return null;
+        }
+        int start = prefixes.match(message.getServerId(), content);
+        if (start < 0) {
+            return null;
+        }
+        TokenizedCommand tokens = TokenizedCommand.tokenize(content, start);
+        CommandRouter.Route route = commandRouter.route(tokens);
+        return route != null ? route.getCommand() : commandRouter.key(tokens.get(0));
     }
 
     /**
@@ -301,6 +655,170 @@ public class Bot extends User {
         this.startListener = startListener;
     }
 
+    /**
+     * Gets the result of the startup of the bot.
+     * @return The {@link StartupReport} of the bot, or {@code null} if it has not finished starting.
+     */
+    public StartupReport getStartupReport() {
+        return startupReport;
+    }
+
+    /**
+     * Gets the {@link ConnectionListener} of the bot.
+     * @return The {@link ConnectionListener} of the bot.
+     */
+    public ConnectionListener getConnectionListener() {
+        return connectionListener;
+    }
+
+    /**
+     * Sets the {@link ConnectionListener} of the bot.
+     * @param connectionListener The {@link ConnectionListener} to set.
+     */
+    public void setConnectionListener(ConnectionListener connectionListener) {
+        this.connectionListener = connectionListener;
+    }
+
+    /**
+     * Gets the managed connection to a server, holding its state and health counters.
+     * @param serverId The ID of the server.
+     * @return The {@link ServerConnection} of the server, or {@code null} if the bot is not in the server.
+     */
+    public ServerConnection getServerConnection(String serverId) {
+        return servers.get(serverId);
+    }
+
+    /**
+     * Gets the managed connections to all servers of the bot.
+     * @return An unmodifiable view of the {@link ServerConnection}s of the bot.
+     */
+    public Collection<ServerConnection> getServerConnections() {
+        return servers.getConnections();
+    }
+
+    /**
+     * Gets the IDs of the servers the bot is connected to.
+     * @return An unmodifiable view of the server IDs.
+     */
+    public Set<String> getServerIds() {
+        return servers.getServerIds();
+    }
+
+    /**
+     * Gets the user profile cache shared by the bot and every {@link User} it creates, to invalidate or refresh entries and read its hit, miss and eviction counters.
+     * @return The {@link UserCache} of the bot.
+     */
+    public UserCache getUserCache() {
+        return userCache;
+    }
+
+    /**
+     * Gets the metrics of the bot: messages received and dispatched per server, command latency per command, send queue depth and acknowledgement latency, HTTP latency per endpoint, reconnections and user cache hits. Metrics are also passed periodically to the exporters added with {@link BotBuilder#addMetricsExporter(io.github.unknowncoder56.javaslc.metrics.MetricsExporter, Duration)}.
+     * @return The {@link MetricsRegistry} of the bot.
+     */
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Gets the state store of the bot, whose reads are served from memory and whose writes are persisted in the background, so it can be used from handlers without blocking them. The store is closed when the bot is shut down.
+     * @return The {@link StateStore} of the bot.
+     * @throws IllegalStateException If no state store was set in the {@link BotBuilder}.
+     * @see BotBuilder#setStateStore(StateStore)
+     */
+    public StateStore getState() {
+        if (stateStore == null) {
+            throw new IllegalStateException("State store not set.");
+        }
+        return stateStore;
+    }
+
+    /**
+     * Gets the {@link Dispatcher} running the listeners of the bot, to read its queue depth and handler latency metrics.
+     * @return The {@link Dispatcher} of the bot.
+     */
+    public Dispatcher getDispatcher() {
+        return dispatcher;
+    }
+
+    /**
+     * Gets the number of messages queued for sending to a server.
+     * @param serverId The ID of the server.
+     * @return The number of queued messages, or 0 if the bot is not in the server.
+     */
+    public int getSendQueueDepth(String serverId) {
+        ServerConnection connection = servers.get(serverId);
+        return connection == null ? 0 : connection.getWriter().getQueueDepth();
+    }
+
+    /**
+     * Adds a filter at the end of the inbound message pipeline. Filters run in the order they were added, before a message is dispatched, and the first filter rejecting a message drops it. Dropped messages are counted in the {@code javaslc.messages.filtered} metric.
+     * @param filter The {@link MessageFilter} to add.
+     * @see MessageFilters
+     */
+    public synchronized void addMessageFilter(MessageFilter filter) {
+        MessageFilter[] filters = Arrays.copyOf(messageFilters, messageFilters.length + 1);
+        filters[filters.length - 1] = filter;
+        messageFilters = filters;
+    }
+
+    /**
+     * Removes a filter from the inbound message pipeline.
+     * @param filter The {@link MessageFilter} to remove.
+     * @return Whether the filter was in the pipeline.
+     */
+    public synchronized boolean removeMessageFilter(MessageFilter filter) {
+        List<MessageFilter> filters = new ArrayList<>(Arrays.asList(messageFilters));
+        boolean removed = filters.remove(filter);
+        messageFilters = filters.toArray(new MessageFilter[0]);
+        return removed;
+    }
+
+    /**
+     * Private utility method to run a message through the filters. The filters are kept in an array replaced on every change, so this reads one snapshot without locking or allocating. A filter throwing an exception drops the message.
+     */
+    private boolean acceptMessage(InboundMessage message) {
+        MessageFilter[] filters = messageFilters;
+        try {
+            for (MessageFilter filter : filters) {
+                if (!filter.accept(message)) {
+                    filteredCount.increment();
+                    return false;
+                }
+            }
+        } catch (Exception e) {
+            filteredCount.increment();
+            if (errorListener != null) {
+                errorListener.onError(e, "filterMessage");
+            }
+            logger.log(Level.WARNING, () -> "Message filter failed on a message from server " + message.getServerId() + ": " + e.getMessage(), e);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Creates a {@link User} instance of a user, with the current {@link ErrorListener}, user profile cache and logger of the bot. Every call creates a new instance, so setting the {@link ErrorListener} of the owner of one message does not affect the others. This method has default-level access and is only used inside the library.
+     */
+    User newUser(String userId) {
+        return new User(userId, getErrorListener(), userCache, logger);
+    }
+
+    /**
+     * Gets the token of the bot. This method has default-level access and is only used inside the library.
+     */
+    String getToken() {
+        return session.getToken();
+    }
+
+    /**
+     * Replaces the token of the bot while it is running, for example after the token was regenerated on SLChat. The change is atomic: messages and REST calls already sent finish with the old token, and every message written and REST call attempted afterwards, including retries, uses the new one. The sockets stay connected.
+     * @param token The new token.
+     */
+    public void setToken(String token) {
+        session.rotate(token);
+    }
+
     /**
      * Gets the user ID of the bot.
      * @return The user ID of the bot.
@@ -342,20 +860,259 @@ public class Bot extends User {
     }
 
     /**
-     * Private utility method to make socket and socket event handler for server, then connect it and add it to socket map.
+     * Registers a handler for a command. Commands are looked up by name (or alias) in an index, so only the matching handler runs. Messages with a prefix that do not match any registered command are passed to the {@link CommandListener}s instead.
+     * A subcommand is registered by passing the space-separated path, for example {@code "config set"}. It is matched on the first arguments of the command, and those arguments are removed from {@link CommandContext#getArguments()}.
+     * @param name The command name without the prefix, or the space-separated path of a subcommand.
+     * @param handler The handler of the command.
+     * @param aliases Alternative names of the command (or of the last element of the subcommand path).
+     */
+    public void registerCommand(String name, CommandListener handler, String... aliases) {
+        commandRouter.register(name, null, handler, aliases);
+    }
+
+    /**
+     * Registers a handler for a command with typed arguments. The arguments are parsed with the signature before the handler runs, and are available from {@link CommandContext#getParsedArguments()}. If they do not match the signature, the handler is not called and the bot replies with the problem and the usage of the command.
+     * @param name The command name without the prefix, or the space-separated path of a subcommand.
+     * @param signature The compiled signature of the arguments, built with {@link CommandSignatureBuilder}.
+     * @param handler The handler of the command.
+     * @param aliases Alternative names of the command (or of the last element of the subcommand path).
+     * @see Bot#registerCommand(String, CommandListener, String...)
+     */
+    public void registerCommand(String name, CommandSignature signature, CommandListener handler, String... aliases) {
+        commandRouter.register(name, signature, handler, aliases);
+    }
+
+    /**
+     * Removes the handler of a command registered with {@link Bot#registerCommand(String, CommandListener, String...)}.
+     * @param name The command name, or the space-separated path of a subcommand.
+     * @return Whether a handler was removed.
+     */
+    public boolean unregisterCommand(String name) {
+        return commandRouter.unregister(name);
+    }
+
+    /**
+     * Private utility method to make socket and socket event handler for server unless the bot already has one, then add it to the server registry and connect it. In multiplexed mode the server is put on a shared socket instead, and subscribed to right away if that socket is already connected.
+     * The connection is made before it is registered, so a concurrent join of the same server may make one too, in which case the connection which lost is discarded without ever connecting.
      * @param serverId The ID of the server to make the socket for.
+     * @return The {@link ServerConnection} of the socket, or {@code null} if the server already had one or it could not be made.
+     */
+    private ServerConnection makeSocketForServer(String serverId) {
+        ServerConnection existing = servers.get(serverId);
+        if (shuttingDown.get() || existing != null && existing.getState() != ConnectionState.CLOSED) {
+            return null;
+        }
+        ServerConnection connection = newConnection(serverId);
+        if (connection == null) {
+            return null;
+        }
+        if (!servers.register(serverId, connection)) {
+            discardConnection(connection);
+            return null;
+        }
+        SharedSocket socket = connection.getSharedSocket();
+        if (socket.subscribe(connection)) {
+            socket.getSocket().emit(SharedSocket.SUBSCRIBE_EVENT, subscription(serverId));
+            onConnected(connection);
+        } else {
+            socket.getSocket().connect();
+        }
+        return connection;
+    }
+
+    /**
+     * Private utility method to make the connection of a server, with a dedicated socket or a shared socket of the pool, without connecting it.
+     */
+    private ServerConnection newConnection(String serverId) {
+        SharedSocket socket = socketPool != null ? socketPool.acquire() : openSocket("server=" + serverId + "&user=" + getBotUserId(), false);
+        if (socket == null) {
+            return null;
+        }
+        return new ServerConnection(serverId, socket, new OutboundWriter(this, serverId, socket.getSocket(), sendSettings), metrics);
+    }
+
+    /**
+     * Private utility method to drop a connection which was made but never registered, closing its socket unless the socket is shared.
+     */
+    private void discardConnection(ServerConnection connection) {
+        SharedSocket socket = connection.getSharedSocket();
+        if (socket.isMultiplexed()) {
+            socketPool.release(socket);
+        } else {
+            socket.getSocket().off();
+            socket.getSocket().io().off();
+            socket.getSocket().close();
+        }
+    }
+
+    /**
+     * Private utility method to make a socket and its event handlers, without connecting it.
+     * The socket reconnects with a jittered exponential backoff after losing its connection, and every state change is recorded in the {@link ServerConnection}s of the servers on it and passed to the {@link ConnectionListener}. Messages are routed to their server by the server ID in their payload.
      */
-    private void makeSocketForServer(String serverId) {
+    private SharedSocket openSocket(String query, boolean multiplexed) {
         try {
-            Socket socket = IO.socket("https://slchat.alwaysdata.net?server=" + serverId + "&user=" + getBotUserId());
-            socket.on("prompt", objects -> handleMessage(JsonParser.parseString(objects[0].toString()).getAsJsonObject()));
-            socket.connect();
-            serverMap.put(serverId, socket);
+            IO.Options options = new IO.Options();
+            options.reconnection = true;
+            options.reconnectionDelay = connectionSettings.getReconnectDelay().toMillis();
+            options.reconnectionDelayMax = connectionSettings.getReconnectDelayMax().toMillis();
+            options.reconnectionAttempts = connectionSettings.getReconnectAttempts() > 0 ? connectionSettings.getReconnectAttempts() : Integer.MAX_VALUE;
+            options.randomizationFactor = 0.5;
+            // Each socket gets its own manager, so that closing one does not affect the others.
+            options.forceNew = true;
+            Socket socket = IO.socket(urls.socket(query), options);
+            SharedSocket sharedSocket = new SharedSocket(socket, multiplexed);
+            socket.on("prompt", objects -> {
+                try {
+                    InboundMessage message = InboundMessage.fromPrompt(objects[0]);
+                    ServerConnection connection = servers.get(message.getServerId());
+                    if (connection != null && acceptMessage(message)) {
+                        connection.receive(message, dispatcher, () -> handleMessage(message));
+                    }
+                } catch (Exception e) {
+                    if (errorListener != null) {
+                        errorListener.onError(e, "makeSocketForServer");
+                    }
+                    logger.log(Level.WARNING, () -> "Failed to decode message from " + query + ": " + e.getMessage(), e);
+                }
+            });
+            socket.on(Socket.EVENT_CONNECT, objects -> {
+                for (ServerConnection connection : sharedSocket.onConnect()) {
+                    if (multiplexed) {
+                        // Rooms do not survive a reconnection, so every server is subscribed to again.
+                        socket.emit(SharedSocket.SUBSCRIBE_EVENT, subscription(connection.getServerId()));
+                    }
+                    onConnected(connection);
+                }
+            });
+            socket.on(Socket.EVENT_DISCONNECT, objects -> {
+                logger.log(Level.INFO, () -> "Disconnected from " + query + (objects.length > 0 ? ": " + objects[0] : ""));
+                for (ServerConnection connection : sharedSocket.onDisconnect()) {
+                    connection.transition(ConnectionState.DISCONNECTED, null);
+                    notifyConnectionListener(connection, ConnectionState.DISCONNECTED);
+                }
+            });
+            socket.on(Socket.EVENT_CONNECT_ERROR, objects -> {
+                Exception e = objects.length > 0 && objects[0] instanceof Exception ? (Exception) objects[0] : new Exception("Failed to connect to " + query + (objects.length > 0 ? ": " + objects[0] : ""));
+                for (ServerConnection connection : sharedSocket.getSubscribers()) {
+                    connection.transition(connection.getState() == ConnectionState.CONNECTING ? ConnectionState.CONNECTING : ConnectionState.RECONNECTING, e);
+                }
+                if (errorListener != null) {
+                    errorListener.onError(e, "connect");
+                }
+            });
+            socket.io().on(Manager.EVENT_RECONNECT_ATTEMPT, objects -> {
+                for (ServerConnection connection : sharedSocket.getSubscribers()) {
+                    connection.transition(ConnectionState.RECONNECTING, null);
+                    notifyConnectionListener(connection, ConnectionState.RECONNECTING);
+                }
+            });
+            socket.io().on(Manager.EVENT_RECONNECT_FAILED, objects -> {
+                logger.log(Level.WARNING, () -> "Gave up reconnecting to " + query);
+                for (ServerConnection connection : sharedSocket.getSubscribers()) {
+                    // Nothing is left to reconnect the server, so it is removed and can be joined again.
+                    if (servers.leave(connection.getServerId(), connection)) {
+                        metrics.removeTagged("server", connection.getServerId());
+                        sendSettings.forgetServer(connection.getServerId());
+                        if (multiplexed) {
+                            socketPool.release(sharedSocket);
+                        }
+                    }
+                    sharedSocket.unsubscribe(connection);
+                    connection.transition(ConnectionState.CLOSED, null);
+                    notifyConnectionListener(connection, ConnectionState.CLOSED);
+                }
+                if (!multiplexed) {
+                    socket.off();
+                    socket.io().off();
+                    socket.close();
+                }
+            });
+            return sharedSocket;
         } catch (URISyntaxException e) {
             if (errorListener != null) {
                 errorListener.onError(e, "makeSocketForServer");
             }
-            System.out.println("Failed to make socket for server " + serverId);
+            logger.log(Level.ERROR, () -> "Failed to make socket for " + query, e);
+            return null;
+        }
+    }
+
+    /**
+     * Private utility method to record that the socket of a server connected, and catch up on the messages missed if it is a reconnection.
+     */
+    private void onConnected(ServerConnection connection) {
+        if (connection.transition(ConnectionState.CONNECTED, null)) {
+            logger.log(Level.INFO, () -> "Reconnected to server " + connection.getServerId());
+            catchUp(connection);
+        }
+        notifyConnectionListener(connection, ConnectionState.CONNECTED);
+    }
+
+    /**
+     * Private utility method to build the payload subscribing a multiplexed socket to a server.
+     */
+    private JSONObject subscription(String serverId) {
+        JSONObject payload = new JSONObject();
+        payload.put("server_id", serverId);
+        payload.put("user", getBotUserId());
+        return payload;
+    }
+
+    /**
+     * Private utility method to fetch the messages a server received while its socket was disconnected from the {@link MessageHistoryProvider}, and deliver them in order before the live messages received since the reconnection.
+     */
+    private void catchUp(ServerConnection connection) {
+        MessageHistoryProvider historyProvider = connectionSettings.getHistoryProvider();
+        if (historyProvider == null) {
+            return;
+        }
+        String lastMessageId = connection.beginCatchUp();
+        if (lastMessageId == null) {
+            return;
+        }
+        String serverId = connection.getServerId();
+        // Fetches block, so they run on the bounded catch-up threads of the bot instead of the common pool, which a reconnection storm would starve.
+        Runnable fetch = () -> {
+            List<InboundMessage> missed = new ArrayList<>();
+            try {
+                for (JsonObject json : historyProvider.fetchMessagesAfter(serverId, lastMessageId)) {
+                    InboundMessage message = InboundMessage.fromJson(json, serverId);
+                    if (acceptMessage(message)) {
+                        missed.add(message);
+                    }
+                }
+            } catch (Exception e) {
+                missed.clear();
+                if (errorListener != null) {
+                    errorListener.onError(e, "catchUp");
+                }
+                logger.log(Level.WARNING, () -> "Failed to fetch missed messages from server " + serverId + ": " + e.getMessage(), e);
+            } finally {
+                connection.endCatchUp(missed, dispatcher, message -> () -> handleMessage(message));
+            }
+        };
+        try {
+            connectionSettings.getCatchUpExecutor().execute(fetch);
+        } catch (RejectedExecutionException e) {
+            // The bot is shutting down, so the buffered live messages are released without catching up.
+            connection.endCatchUp(Collections.emptyList(), dispatcher, message -> () -> handleMessage(message));
+        }
+    }
+
+    /**
+     * Private utility method to pass a connection state change to the {@link ConnectionListener}, reporting its exceptions to the {@link ErrorListener}.
+     */
+    private void notifyConnectionListener(ServerConnection connection, ConnectionState state) {
+        ConnectionListener listener = connectionListener;
+        if (listener == null) {
+            return;
+        }
+        try {
+            listener.onConnectionStateChange(connection, state);
+        } catch (Exception e) {
+            if (errorListener != null) {
+                errorListener.onError(e, "onConnectionStateChange");
+            }
         }
     }
-}
\ No newline at end of file
+}
@@ -1,19 +1,99 @@
 package io.github.unknowncoder56.javaslc;
 
+import io.github.unknowncoder56.javaslc.metrics.MetricsExporter;
+import io.github.unknowncoder56.javaslc.metrics.MetricsRegistry;
+
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A builder class to build a {@link Bot} instance.
  */
 public class BotBuilder {
 
-    private String prefix = "";
+    private final ArrayList<String> prefixes = new ArrayList<>();
+    private final Map<String, List<String>> serverPrefixes = new LinkedHashMap<>();
+    private boolean mentionPrefix = false;
     private StartListener startListener = null;
     private ErrorListener errorListener = null;
     private String token = "";
     private String botUserId = "";
     private final ArrayList<MessageListener> messageListeners = new ArrayList<>();
     private final ArrayList<CommandListener> commandListeners = new ArrayList<>();
+    private int maxConnections = HttpTransport.DEFAULT_MAX_CONNECTIONS;
+    private int maxConnectionsPerRoute = HttpTransport.DEFAULT_MAX_CONNECTIONS_PER_ROUTE;
+    private Duration connectTimeout = HttpTransport.DEFAULT_CONNECT_TIMEOUT;
+    private Duration responseTimeout = HttpTransport.DEFAULT_RESPONSE_TIMEOUT;
+    private Duration keepAlive = HttpTransport.DEFAULT_KEEP_ALIVE;
+    private Executor httpCallbackExecutor = ForkJoinPool.commonPool();
+    private int userCacheSize = UserCache.DEFAULT_MAXIMUM_SIZE;
+    private Duration userCacheTtl = UserCache.DEFAULT_TTL;
+    private int dispatchThreads = Runtime.getRuntime().availableProcessors();
+    private int dispatchQueueCapacity = Dispatcher.DEFAULT_QUEUE_CAPACITY;
+    private OverflowPolicy dispatchOverflowPolicy = OverflowPolicy.DROP_OLDEST;
+    private ThreadFactory dispatchThreadFactory = null;
+    private boolean caseInsensitiveCommands = false;
+    private int sendThreads = 2;
+    private int sendBatchSize = 32;
+    private boolean sendCoalescing = false;
+    private Duration sendAckTimeout = null;
+    private final Map<Endpoint, RateLimiter> rateLimiters = new EnumMap<>(Endpoint.class);
+    private int maxRequestAttempts = RequestScheduler.DEFAULT_MAX_ATTEMPTS;
+    private Duration retryBaseDelay = RequestScheduler.DEFAULT_BASE_DELAY;
+    private Duration retryMaxDelay = RequestScheduler.DEFAULT_MAX_DELAY;
+    private int circuitBreakerFailureThreshold = RequestScheduler.DEFAULT_FAILURE_THRESHOLD;
+    private Duration circuitBreakerOpenDuration = RequestScheduler.DEFAULT_OPEN_DURATION;
+    private ConnectionListener connectionListener = null;
+    private Duration reconnectDelay = Duration.ofSeconds(1);
+    private Duration reconnectDelayMax = Duration.ofSeconds(30);
+    private int reconnectAttempts = 0;
+    private MessageHistoryProvider messageHistoryProvider = null;
+    private int catchUpThreads = 2;
+    private int startupConcurrency = 16;
+    private Duration startupTimeout = Duration.ofSeconds(30);
+    private int multiplexedConnections = 0;
+    private String baseUrl = ApiUrls.DEFAULT_BASE_URL;
+    private String socketUrl = null;
+    private String cookieDomain = null;
+    private final ArrayList<CommandRegistration> commandRegistrations = new ArrayList<>();
+    private final Map<MetricsExporter, Duration> metricsExporters = new LinkedHashMap<>();
+    private System.Logger logger = null;
+    private System.Logger.Level logLevel = System.Logger.Level.INFO;
+    private int asyncLogQueueCapacity = 1024;
+    private final ArrayList<MessageFilter> messageFilters = new ArrayList<>();
+    private Cooldowns cooldowns = null;
+    private StateStore stateStore = null;
+
+    /**
+     * A command registered before the {@link CommandRouter} is built.
+     */
+    private static final class CommandRegistration {
+
+        private final String name;
+        private final CommandSignature signature;
+        private final CommandListener handler;
+        private final String[] aliases;
+
+        private CommandRegistration(String name, CommandSignature signature, CommandListener handler, String[] aliases) {
+            this.name = name;
+            this.signature = signature;
+            this.handler = handler;
+            this.aliases = aliases;
+        }
+    }
 
     /**
      * Private constructor to force the usage of {@link BotBuilder#newInstance()}.
@@ -32,12 +112,46 @@ public class BotBuilder {
     }
 
     /**
-     * Sets the bot prefix.
+     * Sets the bot prefix, replacing the prefixes added before.
      * @param prefix The bot prefix.
      * @return The {@link BotBuilder} instance to facilitate chaining of method calls.
      */
     public BotBuilder setPrefix(String prefix) {
-        this.prefix = prefix;
+        this.prefixes.clear();
+        this.prefixes.add(prefix);
+        return this;
+    }
+
+    /**
+     * Adds a bot prefix. The bot reacts to commands starting with any of its prefixes, and the longest matching prefix is used.
+     * @param prefix The bot prefix to add.
+     * @return The {@link BotBuilder} instance to facilitate chaining of method calls.
+     * @see Bot#addPrefix(String)
+     */
+    public BotBuilder addPrefix(String prefix) {
+        this.prefixes.add(prefix);
+        return this;
+    }
+
+    /**
+     * Sets the prefixes of a server, which override the bot prefixes in it.
+     * @param serverId The ID of the server.
+     * @param prefixes The prefixes of the server.
+     * @return The {@link BotBuilder} instance to facilitate chaining of method calls.
+     * @see Bot#setServerPrefixes(String, String...)
+     */
+    public BotBuilder setServerPrefixes(String serverId, String... prefixes) {
+        this.serverPrefixes.put(serverId, List.of(prefixes));
+        return this;
+    }
+
+    /**
+     * Sets whether mentioning the bot, with {@code @} followed by the bot user ID and whitespace, is accepted as a prefix in all servers. Default is {@code false}.
+     * @param mentionPrefix Whether mentions are accepted as a prefix.
+     * @return The {@link BotBuilder} instance to facilitate chaining of method calls.
+     */
+    public BotBuilder setMentionPrefix(boolean mentionPrefix) {
+        this.mentionPrefix = mentionPrefix;
         return this;
     }
 
@@ -105,11 +219,486 @@ public class BotBuilder {
         return this;
     }
 
+    /**
+     * Registers a handler for a command.
+     * @param name The command name without the prefix, or the space-separated path of a subcommand.
+     * @param handler The handler of the command.
+     * @param aliases Alternative names of the command (or of the last element of the subcommand path).
+     * @return The {@link BotBuilder} instance to facilitate chaining of method calls.
+     * @see Bot#registerCommand(String, CommandListener, String...)
+     */
+    public BotBuilder registerCommand(String name, CommandListener handler, String... aliases) {
+        commandRegistrations.add(new CommandRegistration(name, null, handler, aliases));
+        return this;
+    }
+
+    /**
+     * Registers a handler for a command with typed arguments.
+     * @param name The command name without the prefix, or the space-separated path of a subcommand.
+     * @param signature The compiled signature of the arguments, built with {@link CommandSignatureBuilder}.
+     * @param handler The handler of the command.
+     * @param aliases Alternative names of the command (or of the last element of the subcommand path).
+     * @return The {@link BotBuilder} instance to facilitate chaining of method calls.
+     * @see Bot#registerCommand(String, CommandSignature, CommandListener, String...)
+     */
+    public BotBuilder registerCommand(String name, CommandSignature signature, CommandListener handler, String... aliases) {
+        commandRegistrations.add(new CommandRegistration(name, signature, handler, aliases));
+        return this;
+    }
+
+    /**
+     * Sets whether registered command names and aliases are matched ignoring case. Default is false.
+     * @param caseInsensitiveCommands Whether command names are matched ignoring case.
+     * @return The {@link BotBuilder} instance to facilitate chaining of method calls.
+     */
+    public BotBuilder setCaseInsensitiveCommands(boolean caseInsensitiveCommands) {
+        this.caseInsensitiveCommands = caseInsensitiveCommands;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of pooled HTTP connections shared by the bot and its users. Default is 50.
+     * @param maxConnections The maximum number of pooled HTTP connections.
+     * @return The {@link BotBuilder} instance to facilitate chaining of method calls.
+     */
+    public BotBuilder setMaxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of pooled HTTP connections per route (host). Default is 20.
+     * @param maxConnectionsPerRoute The maximum number of pooled HTTP connections per route.
+     * @return The {@link BotBuilder} instance to facilitate chaining of method calls.
+     */
+    public BotBuilder setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+        return this;
+    }
+
+    /**
+     * Sets the timeout for establishing (or leasing from the pool) an HTTP connection. Default is 10 seconds.
+     * @param connectTimeout The connect timeout.
+     * @return The {@link BotBuilder} instance to facilitate chaining of method calls.
+     */
+    public BotBuilder setConnectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+        return this;
+    }
+
+    /**
+     * Sets the timeout for waiting for an HTTP response. Default is 30 seconds.
+     * @param responseTimeout The response timeout.
+     * @return The {@link BotBuilder} instance to facilitate chaining of method calls.
+     */
+    public BotBuilder setResponseTimeout(Duration responseTimeout) {
+        this.responseTimeout = responseTimeout;
+        return this;
+    }
+
+    /**
+     * Sets how long an idle HTTP connection is kept alive in the pool for reuse. Default is 60 seconds.
+     * @param keepAlive The keep-alive duration.
+     * @return The {@link BotBuilder} instance to facilitate chaining of method calls.
+     */
+    public BotBuilder setKeepAlive(Duration keepAlive) {
+        this.keepAlive = keepAlive;
+        return this;
+    }
+
+    /**
+     * Sets the executor on which the futures of REST calls are completed, which also runs the code chained on them, such as the callbacks of the {@link java.util.concurrent.CompletableFuture}s returned by {@link User} getters. REST calls are asynchronous and never block a thread of this executor while waiting for a response. Default is {@link ForkJoinPool#commonPool()}.
+     * @param httpCallbackExecutor The executor completing REST calls.
+     * @return The {@link BotBuilder} instance to facilitate chaining of method calls.
+     */
+    public BotBuilder setHttpCallbackExecutor(Executor httpCallbackExecutor) {
+        this.httpCallbackExecutor = httpCallbackExecutor;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of user profiles kept in the bot-wide {@link UserCache}. The least recently used profile is evicted when it is full. A value of 0 disables caching. Default is 1000.
+     * @param userCacheSize The maximum number of cached user profiles.
+     * @return The {@link BotBuilder} instance to facilitate chaining of method calls.
+     */
+    public BotBuilder setUserCacheSize(int userCacheSize) {
+        this.userCacheSize = userCacheSize;
+        return this;
+    }
+
+    /**
+     * Sets how long a cached user profile stays valid before it is fetched again. Default is 60 seconds.
+     * @param userCacheTtl The time a cached user profile stays valid.
+     * @return The {@link BotBuilder} instance to facilitate chaining of method calls.
+     */
+    public BotBuilder setUserCacheTtl(Duration userCacheTtl) {
+        this.userCacheTtl = userCacheTtl;
+        return this;
+    }
+
+    /**
+     * Sets the number of dispatch threads running the message and command listeners. Messages of one server are always handled in order by the same thread, while different servers are handled in parallel. A value of 0 runs the listeners directly on the socket event thread. Default is the number of available processors.
+     * @param dispatchThreads The number of dispatch threads.
+     * @return The {@link BotBuilder} instance to facilitate chaining of method calls.
+     * @see Dispatcher
+     */
+    public BotBuilder setDispatchThreads(int dispatchThreads) {
+        this.dispatchThreads = dispatchThreads;
+        return this;
+    }
+
+    /**
+     * Sets the capacity of the message queue of each dispatch thread. Default is 1024.
+     * @param dispatchQueueCapacity The capacity of the message queue of each dispatch thread.
+     * @return The {@link BotBuilder} instance to facilitate chaining of method calls.
+     */
+    public BotBuilder setDispatchQueueCapacity(int dispatchQueueCapacity) {
+        this.dispatchQueueCapacity = dispatchQueueCapacity;
+        return this;
+    }
+
+    /**
+     * Sets what happens when a message arrives while the dispatch queue is full. Default is {@link OverflowPolicy#DROP_OLDEST}, so a slow handler never stalls the socket of its server. {@link OverflowPolicy#BLOCK} is opt-in.
+     * @param dispatchOverflowPolicy The overflow policy.
+     * @return The {@link BotBuilder} instance to facilitate chaining of method calls.
+     * @see OverflowPolicy
+     */
+    public BotBuilder setDispatchOverflowPolicy(OverflowPolicy dispatchOverflowPolicy) {
+        this.dispatchOverflowPolicy = dispatchOverflowPolicy;
+        return this;
+    }
+
+    /**
+     * Sets the {@link ThreadFactory} creating the dispatch threads. On Java 21 or later, pass {@code Thread.ofVirtual().factory()} to run the listeners on virtual threads. Default creates daemon platform threads.
+     * @param dispatchThreadFactory The factory creating the dispatch threads.
+     * @return The {@link BotBuilder} instance to facilitate chaining of method calls.
+     */
+    public BotBuilder setDispatchThreadFactory(ThreadFactory dispatchThreadFactory) {
+        this.dispatchThreadFactory = dispatchThreadFactory;
+        return this;
+    }
+
+    /**
+     * Sets the number of threads writing queued messages to the server sockets. Each server has a single writer, so this only limits how many servers are written to at the same time. Default is 2.
+     * @param sendThreads The number of send threads.
+     * @return The {@link BotBuilder} instance to facilitate chaining of method calls.
+     */
+    public BotBuilder setSendThreads(int sendThreads) {
+        this.sendThreads = sendThreads;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of queued messages a server writer sends before yielding the send thread to other servers. Default is 32.
+     * @param sendBatchSize The maximum number of messages sent in one batch.
+     * @return The {@link BotBuilder} instance to facilitate chaining of method calls.
+     */
+    public BotBuilder setSendBatchSize(int sendBatchSize) {
+        this.sendBatchSize = sendBatchSize;
+        return this;
+    }
+
+    /**
+     * Sets whether messages queued for the same server at the same time are joined with line breaks into one message (up to 2000 characters). This reduces the number of messages during bursts, but changes how they are displayed. Default is false.
+     * @param sendCoalescing Whether queued messages are coalesced.
+     * @return The {@link BotBuilder} instance to facilitate chaining of method calls.
+     */
+    public BotBuilder setSendCoalescing(boolean sendCoalescing) {
+        this.sendCoalescing = sendCoalescing;
+        return this;
+    }
+
+    /**
+     * Makes {@link Bot#send(String, String)} wait for the socket.io acknowledgement of the server before completing its future, failing it with a {@link java.util.concurrent.TimeoutException} if none arrives in time. Only set this if the server acknowledges {@code message} events. Default is null, which completes the future when the message is written.
+     * @param sendAckTimeout How long to wait for the acknowledgement, or null to not wait.
+     * @return The {@link BotBuilder} instance to facilitate chaining of method calls.
+     */
+    public BotBuilder setSendAckTimeout(Duration sendAckTimeout) {
+        this.sendAckTimeout = sendAckTimeout;
+        return this;
+    }
+
+    /**
+     * Sets a token bucket rate limit for an endpoint. {@link Endpoint#SEND} is limited per server, the other endpoints for the whole bot. Calls over the limit are delayed, not dropped. By default no endpoint is rate limited.
+     * @param endpoint The endpoint to limit.
+     * @param permitsPerSecond The sustained number of calls per second, which must be positive.
+     * @param burst The number of calls which may be made at once after an idle period, which must be at least 1.
+     * @return The {@link BotBuilder} instance to facilitate chaining of method calls.
+     * @throws IllegalArgumentException If the rate is not positive or the burst is less than 1.
+     */
+    public BotBuilder setRateLimit(Endpoint endpoint, double permitsPerSecond, int burst) throws IllegalArgumentException {
+        rateLimiters.put(endpoint, new RateLimiter(permitsPerSecond, burst));
+        return this;
+    }
+
+    /**
+     * Sets how {@link Bot#join(String)} and {@link Bot#change(Bot.ChangeKey, String)} are retried after a 429, 5xx or network error. The delay before each retry doubles from the base delay up to the maximum delay, with random jitter. Default is 3 attempts, 500 milliseconds base delay and 10 seconds maximum delay.
+     * @param maxAttempts The maximum number of attempts, including the first one. A value of 1 disables retries.
+     * @param baseDelay The delay before the first retry.
+     * @param maxDelay The maximum delay between retries.
+     * @return The {@link BotBuilder} instance to facilitate chaining of method calls.
+     */
+    public BotBuilder setRetryPolicy(int maxAttempts, Duration baseDelay, Duration maxDelay) {
+        this.maxRequestAttempts = maxAttempts;
+        this.retryBaseDelay = baseDelay;
+        this.retryMaxDelay = maxDelay;
+        return this;
+    }
+
+    /**
+     * Sets when the circuit breaker of an endpoint opens. After the given number of consecutive 429, 5xx or network errors, calls to the endpoint fail immediately for the open duration, then a single trial call decides whether it closes again. Default is 5 failures and 30 seconds.
+     * @param failureThreshold The number of consecutive failures which open the breaker. A value of 0 disables circuit breakers.
+     * @param openDuration How long the breaker stays open.
+     * @return The {@link BotBuilder} instance to facilitate chaining of method calls.
+     */
+    public BotBuilder setCircuitBreaker(int failureThreshold, Duration openDuration) {
+        this.circuitBreakerFailureThreshold = failureThreshold;
+        this.circuitBreakerOpenDuration = openDuration;
+        return this;
+    }
+
+    /**
+     * Sets the {@link ConnectionListener} of the bot, which is notified when the socket of a server connects, disconnects, reconnects or gives up. Default is null.
+     * @param connectionListener The {@link ConnectionListener} to set.
+     * @return The {@link BotBuilder} instance to facilitate chaining of method calls.
+     */
+    public BotBuilder setConnectionListener(ConnectionListener connectionListener) {
+        this.connectionListener = connectionListener;
+        return this;
+    }
+
+    /**
+     * Sets the delays between reconnection attempts of a server socket which lost its connection. The delay doubles after each failed attempt from the initial delay up to the maximum delay, with random jitter. Default is 1 second initial delay and 30 seconds maximum delay.
+     * @param initialDelay The delay before the first reconnection attempt.
+     * @param maxDelay The maximum delay between reconnection attempts.
+     * @return The {@link BotBuilder} instance to facilitate chaining of method calls.
+     */
+    public BotBuilder setReconnectBackoff(Duration initialDelay, Duration maxDelay) {
+        this.reconnectDelay = initialDelay;
+        this.reconnectDelayMax = maxDelay;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of reconnection attempts of a server socket, after which it is closed. Default is 0, which retries forever.
+     * @param reconnectAttempts The maximum number of reconnection attempts, or 0 for no limit.
+     * @return The {@link BotBuilder} instance to facilitate chaining of method calls.
+     */
+    public BotBuilder setReconnectAttempts(int reconnectAttempts) {
+        this.reconnectAttempts = reconnectAttempts;
+        return this;
+    }
+
+    /**
+     * Sets the provider of messages missed while a server socket was disconnected. After a reconnection, the messages sent after the last received message are fetched from it and delivered in order before any newer message. Catching up requires the server to send message IDs. Default is null, which does not catch up.
+     * @param messageHistoryProvider The {@link MessageHistoryProvider} to set.
+     * @return The {@link BotBuilder} instance to facilitate chaining of method calls.
+     */
+    public BotBuilder setMessageHistoryProvider(MessageHistoryProvider messageHistoryProvider) {
+        this.messageHistoryProvider = messageHistoryProvider;
+        return this;
+    }
+
+    /**
+     * Sets the number of threads fetching missed messages from the {@link MessageHistoryProvider}. Fetches block their thread, so after a reconnection of many servers the further fetches wait for a free thread instead of occupying the common pool. The threads are only started when a fetch is made and stop when idle. Default is 2.
+     * @param catchUpThreads The number of catch-up threads.
+     * @return The {@link BotBuilder} instance to facilitate chaining of method calls.
+     */
+    public BotBuilder setCatchUpThreads(int catchUpThreads) {
+        this.catchUpThreads = catchUpThreads;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of server sockets connecting at once when the bot starts. Each further socket is made when one of them has connected or failed. Default is 16.
+     * @param startupConcurrency The maximum number of sockets connecting at once, or 0 for no limit.
+     * @return The {@link BotBuilder} instance to facilitate chaining of method calls.
+     */
+    public BotBuilder setStartupConcurrency(int startupConcurrency) {
+        this.startupConcurrency = startupConcurrency;
+        return this;
+    }
+
+    /**
+     * Sets how long {@link Bot#start()} waits for the server sockets to connect before calling the {@link StartListener}. Servers which are not connected by then are reported as failed in the {@link StartupReport} and keep connecting in the background. Default is 30 seconds.
+     * @param startupTimeout The maximum time to wait for the sockets to connect.
+     * @return The {@link BotBuilder} instance to facilitate chaining of method calls.
+     */
+    public BotBuilder setStartupTimeout(Duration startupTimeout) {
+        this.startupTimeout = startupTimeout;
+        return this;
+    }
+
+    /**
+     * Makes all servers share a fixed number of socket connections instead of opening one socket per server. Each server is put on the connection carrying the fewest servers and subscribed to with a {@code join} event, and messages are still routed by their server ID. This relies on the backend putting each server in a socket.io room joined that way, only enable it against a backend which does. Default is 0, which opens one socket per server.
+     * @param multiplexedConnections The number of shared connections, or 0 for one socket per server.
+     * @return The {@link BotBuilder} instance to facilitate chaining of method calls.
+     */
+    public BotBuilder setMultiplexedConnections(int multiplexedConnections) {
+        this.multiplexedConnections = multiplexedConnections;
+        return this;
+    }
+
+    /**
+     * Adds an exporter which is passed a snapshot of the metrics of the bot at a fixed interval, until the bot is shut down. The metrics are always recorded, exporters only publish them, and the metrics can also be read at any time with {@link Bot#getMetrics()}.
+     * @param exporter The {@link MetricsExporter} to call.
+     * @param interval The interval between two exports.
+     * @return The {@link BotBuilder} instance to facilitate chaining of method calls.
+     */
+    public BotBuilder addMetricsExporter(MetricsExporter exporter, Duration interval) {
+        metricsExporters.put(exporter, interval);
+        return this;
+    }
+
+    /**
+     * Sets the base URL of the SLChat REST API, for example to run the bot against a self-hosted instance or the {@code MockSLChatServer} of the {@code JavaSLC-mock} artifact. Default is {@code https://slchat.alwaysdata.net}.
+     * @param baseUrl The base URL, without the {@code /api} path.
+     * @return The {@link BotBuilder} instance to facilitate chaining of method calls.
+     */
+    public BotBuilder setBaseUrl(String baseUrl) {
+        this.baseUrl = baseUrl;
+        return this;
+    }
+
+    /**
+     * Sets the URL of the socket.io server. Default is null, which uses the base URL.
+     * @param socketUrl The URL of the socket.io server.
+     * @return The {@link BotBuilder} instance to facilitate chaining of method calls.
+     */
+    public BotBuilder setSocketUrl(String socketUrl) {
+        this.socketUrl = socketUrl;
+        return this;
+    }
+
+    /**
+     * Sets the domain of the session cookies sent with REST calls. Default is null, which uses the host of the base URL.
+     * @param cookieDomain The cookie domain.
+     * @return The {@link BotBuilder} instance to facilitate chaining of method calls.
+     */
+    public BotBuilder setCookieDomain(String cookieDomain) {
+        this.cookieDomain = cookieDomain;
+        return this;
+    }
+
+    /**
+     * Adds a filter at the end of the inbound message pipeline of the bot. Filters run in the order they were added, before messages are dispatched, and the first filter rejecting a message drops it before any context is built or listener is called.
+     * @param filter The {@link MessageFilter} to add.
+     * @return The {@link BotBuilder} instance to facilitate chaining of method calls.
+     * @see MessageFilters
+     */
+    public BotBuilder addMessageFilter(MessageFilter filter) {
+        messageFilters.add(filter);
+        return this;
+    }
+
+    /**
+     * Sets the command cooldowns of the bot. Commands are checked once routed, so the limits of a command also apply to its aliases, and commands over their limits are dropped before their handler runs. Default is null, which does not limit commands.
+     * @param cooldowns The {@link Cooldowns} to enforce.
+     * @return The {@link BotBuilder} instance to facilitate chaining of method calls.
+     */
+    public BotBuilder setCooldowns(Cooldowns cooldowns) {
+        this.cooldowns = cooldowns;
+        return this;
+    }
+
+    /**
+     * Sets the state store of the bot, opened with {@link StateStore#open(java.nio.file.Path, Duration)}. The bot closes it when it is shut down, after the queued messages are handled. Default is null, which leaves {@link Bot#getState()} unavailable.
+     * @param stateStore The {@link StateStore} of the bot.
+     * @return The {@link BotBuilder} instance to facilitate chaining of method calls.
+     */
+    public BotBuilder setStateStore(StateStore stateStore) {
+        this.stateStore = stateStore;
+        return this;
+    }
+
+    /**
+     * Sets the logger the bot writes its operational messages to, such as failed sends, disconnections and reconnections. {@link System.Logger} uses {@code java.util.logging} by default and can be routed to another logging framework through a {@link System.LoggerFinder}. Default is {@code System.getLogger("io.github.unknowncoder56.javaslc")}.
+     * @param logger The logger of the bot.
+     * @return The {@link BotBuilder} instance to facilitate chaining of method calls.
+     */
+    public BotBuilder setLogger(System.Logger logger) {
+        this.logger = logger;
+        return this;
+    }
+
+    /**
+     * Sets the minimum level of the messages logged by the bot. Messages below it are not even built. Default is {@link System.Logger.Level#INFO}.
+     * @param logLevel The minimum log level.
+     * @return The {@link BotBuilder} instance to facilitate chaining of method calls.
+     */
+    public BotBuilder setLogLevel(System.Logger.Level logLevel) {
+        this.logLevel = logLevel;
+        return this;
+    }
+
+    /**
+     * Sets the capacity of the queue of the {@link AsyncLogger} writing the messages of the bot on a background thread, so logging never blocks the dispatch and send threads. Messages logged while the queue is full are dropped. Default is 1024, a value of 0 writes messages on the thread logging them.
+     * @param queueCapacity The capacity of the log queue, or 0 to log synchronously.
+     * @return The {@link BotBuilder} instance to facilitate chaining of method calls.
+     */
+    public BotBuilder setAsyncLogging(int queueCapacity) {
+        this.asyncLogQueueCapacity = queueCapacity;
+        return this;
+    }
+
     /**
      * Builds the bot and returns a {@link Bot} instance constructed with the specified values. Any skipped values are set to default. Skipping the prefix, token, or bot user ID will result in a {@link RuntimeException} if not set later in the {@link Bot} before running the {@link Bot#run()} method.
+     * The bot can make REST calls as soon as it is built, so its HTTP client, and its async logger and metrics exporters if configured, already run threads: call {@link Bot#shutdown(Duration)} or {@link Bot#close()} once the bot is no longer needed, even if it was never started. The dispatch, send and catch-up threads are only created when they are first needed.
      * @return A {@link Bot} instance constructed with the specified values.
      */
     public Bot build() {
-        return new Bot(prefix, startListener, errorListener, token, botUserId, messageListeners, commandListeners);
+        HttpTransport transport = new HttpTransport(maxConnections, maxConnectionsPerRoute, connectTimeout, responseTimeout, keepAlive, httpCallbackExecutor);
+        ApiUrls urls = new ApiUrls(baseUrl, socketUrl, cookieDomain);
+        MetricsRegistry metrics = new MetricsRegistry();
+        BotLogger botLogger = new BotLogger(logger != null ? logger : System.getLogger(BotLogger.DEFAULT_NAME), logLevel, asyncLogQueueCapacity);
+        metrics.gauge("javaslc.log.dropped", botLogger::getDroppedCount);
+        UserCache userCache = new UserCache(transport, urls, userCacheSize, userCacheTtl, metrics);
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, daemonThreadFactory("javaslc-scheduler-"));
+        scheduler.setRemoveOnCancelPolicy(true);
+        OutboundWriter.Settings sendSettings = new OutboundWriter.Settings(Executors.newFixedThreadPool(sendThreads, daemonThreadFactory("javaslc-send-")), scheduler, sendBatchSize, sendCoalescing, sendAckTimeout, rateLimiters.get(Endpoint.SEND), metrics);
+        RequestScheduler requestScheduler = new RequestScheduler(scheduler, new EnumMap<>(rateLimiters), maxRequestAttempts, retryBaseDelay, retryMaxDelay, circuitBreakerFailureThreshold, circuitBreakerOpenDuration, metrics);
+        ThreadPoolExecutor catchUpExecutor = null;
+        if (messageHistoryProvider != null) {
+            catchUpExecutor = new ThreadPoolExecutor(catchUpThreads, catchUpThreads, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), daemonThreadFactory("javaslc-catchup-"));
+            catchUpExecutor.allowCoreThreadTimeOut(true);
+        }
+        CommandRouter commandRouter = new CommandRouter(caseInsensitiveCommands, metrics);
+        commandRegistrations.forEach(registration -> commandRouter.register(registration.name, registration.signature, registration.handler, registration.aliases));
+        ErrorListener exportErrorListener = errorListener;
+        metricsExporters.forEach((exporter, interval) -> scheduler.scheduleAtFixedRate(() -> {
+            // An exception would cancel the periodic export, so it is reported instead.
+            try {
+                exporter.export(metrics.snapshot());
+            } catch (Exception e) {
+                if (exportErrorListener != null) {
+                    exportErrorListener.onError(e, "exportMetrics");
+                }
+                botLogger.log(System.Logger.Level.WARNING, () -> "Failed to export metrics: " + e.getMessage(), e);
+            }
+        }, interval.toNanos(), interval.toNanos(), TimeUnit.NANOSECONDS));
+        if (stateStore != null) {
+            stateStore.setLogger(botLogger);
+            metrics.gauge("javaslc.state.keys", stateStore::size);
+            metrics.gauge("javaslc.state.pending", stateStore::getPendingWrites);
+        }
+        PrefixResolver prefixResolver = new PrefixResolver(prefixes, mentionPrefix && !botUserId.isEmpty() ? "@" + botUserId : null);
+        serverPrefixes.forEach(prefixResolver::setServerPrefixes);
+        Bot builtBot = new Bot(prefixResolver, startListener, errorListener, token, botUserId, messageListeners, commandListeners, transport, userCache,
+                bot -> new Dispatcher(bot, dispatchThreads, dispatchQueueCapacity, dispatchOverflowPolicy, dispatchThreadFactory), commandRouter, sendSettings, requestScheduler,
+                new ServerConnection.Settings(reconnectDelay, reconnectDelayMax, reconnectAttempts, messageHistoryProvider, catchUpExecutor, startupConcurrency, startupTimeout, multiplexedConnections), connectionListener, urls, metrics, botLogger, stateStore, cooldowns);
+        messageFilters.forEach(builtBot::addMessageFilter);
+        return builtBot;
+    }
+
+    /**
+     * Private utility method to create a factory of named daemon threads.
+     */
+    private static ThreadFactory daemonThreadFactory(String namePrefix) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
     }
 }
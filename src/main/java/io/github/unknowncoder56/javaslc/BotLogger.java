@@ -0,0 +1,84 @@
+package io.github.unknowncoder56.javaslc;
+
+import java.util.function.Supplier;
+
+/**
+ * The logger of a {@link Bot} and the {@link User}s it creates: a {@link System.Logger} and the minimum level logged by the library. Messages are passed as a {@link Supplier}, so they are only built if their level is enabled.
+ * {@link System.Logger} is backed by {@code java.util.logging} by default and can be routed to another logging framework through its {@link System.LoggerFinder}, without the library depending on one.
+ */
+final class BotLogger {
+
+    /**
+     * The name of the default logger of the library.
+     */
+    static final String DEFAULT_NAME = "io.github.unknowncoder56.javaslc";
+
+    private static BotLogger defaultLogger;
+
+    private final System.Logger logger;
+    private final System.Logger.Level level;
+    private final AsyncLogger asyncLogger;
+
+    /**
+     * Constructor to build a logger.
+     * @param logger The logger the messages are written to.
+     * @param level The minimum level of the messages written.
+     * @param asyncQueueCapacity The capacity of the queue of an {@link AsyncLogger} put in front of the logger, or 0 to write messages on the calling thread.
+     */
+    BotLogger(System.Logger logger, System.Logger.Level level, int asyncQueueCapacity) {
+        this.asyncLogger = asyncQueueCapacity > 0 ? new AsyncLogger(logger, asyncQueueCapacity) : null;
+        this.logger = asyncLogger != null ? asyncLogger : logger;
+        this.level = level;
+    }
+
+    /**
+     * Gets the logger used by {@link User} instances which were not created by a {@link Bot}.
+     * @return The process-wide default logger, logging messages from {@link System.Logger.Level#INFO} up.
+     */
+    static synchronized BotLogger getDefault() {
+        if (defaultLogger == null) {
+            defaultLogger = new BotLogger(System.getLogger(DEFAULT_NAME), System.Logger.Level.INFO, 0);
+        }
+        return defaultLogger;
+    }
+
+    /**
+     * Logs a message.
+     * @param messageLevel The level of the message.
+     * @param message The supplier of the message, only called if the level is enabled.
+     */
+    void log(System.Logger.Level messageLevel, Supplier<String> message) {
+        if (messageLevel.getSeverity() >= level.getSeverity()) {
+            logger.log(messageLevel, message);
+        }
+    }
+
+    /**
+     * Logs a message with the error which caused it.
+     * @param messageLevel The level of the message.
+     * @param message The supplier of the message, only called if the level is enabled.
+     * @param thrown The error.
+     */
+    void log(System.Logger.Level messageLevel, Supplier<String> message, Throwable thrown) {
+        if (messageLevel.getSeverity() >= level.getSeverity()) {
+            logger.log(messageLevel, message, thrown);
+        }
+    }
+
+    /**
+     * Gets the number of messages dropped because the queue of the {@link AsyncLogger} was full.
+     * @return The number of dropped messages, or 0 if messages are written on the calling thread.
+     */
+    long getDroppedCount() {
+        return asyncLogger != null ? asyncLogger.getDroppedCount() : 0;
+    }
+
+    /**
+     * Stops the background thread of the {@link AsyncLogger} made by this logger, if any, after it has written the queued messages.
+     */
+    void close() {
+        if (asyncLogger != null) {
+            asyncLogger.close();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package io.github.unknowncoder56.javaslc;
+
+/**
+ * A circuit breaker for one endpoint. After a number of consecutive failures it opens and rejects calls for a cool-down period, then lets a single trial call through and closes again if it succeeds.
+ */
+class CircuitBreaker {
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private int consecutiveFailures;
+    private boolean open;
+    private boolean trialInFlight;
+    private long openedAt;
+
+    /**
+     * Constructor to build a closed circuit breaker.
+     * @param failureThreshold The number of consecutive failures after which the breaker opens. A value of 0 disables the breaker.
+     * @param openNanos How long the breaker stays open before a trial call is allowed, in nanoseconds.
+     */
+    CircuitBreaker(int failureThreshold, long openNanos) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openNanos;
+    }
+
+    /**
+     * Gets whether a call may be made now. When the breaker is open and the cool-down has passed, this lets exactly one trial call through.
+     * @return Whether a call may be made now.
+     */
+    synchronized boolean allowRequest() {
+        if (!open) {
+            return true;
+        }
+        if (!trialInFlight && System.nanoTime() - openedAt >= openNanos) {
+            trialInFlight = true;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Records a successful call, closing the breaker.
+     */
+    synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        open = false;
+        trialInFlight = false;
+    }
+
+    /**
+     * Records a failed call, opening the breaker if the threshold is reached or the trial call failed.
+     */
+    synchronized void onFailure() {
+        consecutiveFailures++;
+        if (failureThreshold > 0 && (trialInFlight || consecutiveFailures >= failureThreshold)) {
+            open = true;
+            trialInFlight = false;
+            openedAt = System.nanoTime();
+        }
+    }
+
+    /**
+     * Gets whether the breaker is currently open.
+     * @return Whether the breaker is open.
+     */
+    synchronized boolean isOpen() {
+        return open;
+    }
+}
@@ -2,13 +2,20 @@ package io.github.unknowncoder56.javaslc;
 
 import com.google.gson.JsonObject;
 
+import java.util.Arrays;
+
 /**
  * A class to create a context object which contains details about the command like message content, owner (author), server ID, {@link Bot} instance, command name and command arguments.
  */
 public class CommandContext extends MessageContext {
 
     private final String command;
-    private final String[] arguments;
+    private final String commandPath;
+    private final String registeredCommand;
+    private final TokenizedCommand tokens;
+    private final int argumentOffset;
+    private String[] arguments;
+    private ParsedArguments parsedArguments;
 
     /**
      * Constructor to create an instance of the class for a command without arguments.
@@ -20,6 +27,10 @@ public class CommandContext extends MessageContext {
     public CommandContext(JsonObject message, String serverId, Bot bot, String command) {
         super(message, serverId, bot);
         this.command = command;
+        this.commandPath = command;
+        this.registeredCommand = command;
+        this.tokens = null;
+        this.argumentOffset = 0;
         this.arguments = new String[]{};
     }
 
@@ -34,9 +45,25 @@ public class CommandContext extends MessageContext {
     public CommandContext(JsonObject message, String serverId, Bot bot, String command, String[] arguments) {
         super(message, serverId, bot);
         this.command = command;
+        this.commandPath = command;
+        this.registeredCommand = command;
+        this.tokens = null;
+        this.argumentOffset = 0;
         this.arguments = arguments;
     }
 
+    /**
+     * Constructor to create an instance of the class directly from a decoded message. This constructor has default-level access and is only used inside the library.
+     */
+    CommandContext(InboundMessage message, Bot bot, TokenizedCommand tokens, String commandPath, String registeredCommand, int argumentOffset) {
+        super(message, bot);
+        this.command = tokens.get(0);
+        this.commandPath = commandPath;
+        this.registeredCommand = registeredCommand;
+        this.tokens = tokens;
+        this.argumentOffset = argumentOffset;
+    }
+
     /**
      * Gets the command name of the command received.
      * Note: The command name does not contain the bot prefix.
@@ -47,10 +74,84 @@ public class CommandContext extends MessageContext {
     }
 
     /**
-     * Gets the array of the arguments supplied with the command.
+     * Gets the full path of the command received, which is the command name followed by the names of the matched subcommands separated by spaces (for example {@code "config set"}). For commands without subcommands this is the same as {@link CommandContext#getCommand()}.
+     * @return The full path of the command received.
+     * @see Bot#registerCommand(String, CommandListener, String...)
+     */
+    public String getCommandPath() {
+        return commandPath;
+    }
+
+    /**
+     * Gets the path of the command as it was registered, which is the same whichever alias or letter case was used in the message. For commands without a registered handler this is the command name, lowercased if command names are matched ignoring case.
+     * @return The registered path of the command.
+     * @see Cooldowns#limit(String, CooldownScope, int, java.time.Duration)
+     */
+    public String getRegisteredCommand() {
+        return registeredCommand;
+    }
+
+    /**
+     * Gets the array of the arguments supplied with the command. For a matched subcommand, the subcommand names are not included.
+     * Arguments are separated by whitespace. An argument can be quoted with {@code "} or {@code '} to include whitespace, and {@code \} escapes the next character.
      * @return The array of the arguments supplied with the command.
      */
     public String[] getArguments() {
+        if (arguments == null) {
+            arguments = tokens.toArray(argumentOffset);
+        }
         return arguments;
     }
+
+    /**
+     * Gets the arguments parsed by the {@link CommandSignature} the command was registered with.
+     * @return The parsed arguments, or {@code null} if the command was registered without a signature or was received by a {@link CommandListener} added with {@link Bot#addCommandListener(CommandListener)}.
+     * @see Bot#registerCommand(String, CommandSignature, CommandListener, String...)
+     */
+    public ParsedArguments getParsedArguments() {
+        return parsedArguments;
+    }
+
+    /**
+     * Sets the parsed arguments. This method has default-level access and is only used by the {@link Bot} class before calling the handler.
+     */
+    void setParsedArguments(ParsedArguments parsedArguments) {
+        this.parsedArguments = parsedArguments;
+    }
+
+    /**
+     * Gets the number of arguments supplied with the command, without building the argument array.
+     * @return The number of arguments.
+     */
+    public int getArgumentCount() {
+        return tokens == null || arguments != null ? arguments.length : tokens.size() - argumentOffset;
+    }
+
+    /**
+     * Gets one argument supplied with the command, without building the argument array.
+     * @param index The index of the argument, starting at 0.
+     * @return The argument at the index.
+     * @throws IndexOutOfBoundsException If there is no argument at the index.
+     */
+    public String getArgument(int index) {
+        if (tokens == null || arguments != null) {
+            return arguments[index];
+        }
+        if (index < 0 || index >= getArgumentCount()) {
+            throw new IndexOutOfBoundsException("Argument index " + index + " out of bounds for length " + getArgumentCount());
+        }
+        return tokens.get(argumentOffset + index);
+    }
+
+    /**
+     * Gets the raw text of the arguments from an index to the end of the message, with whitespace, quotes and escapes left as typed. This is useful for commands taking a free-form text as their last argument.
+     * @param index The index of the first argument to include, starting at 0.
+     * @return The raw text of the remaining arguments, or an empty string if there is no argument at the index.
+     */
+    public String getRawArguments(int index) {
+        if (tokens == null) {
+            return index < arguments.length ? String.join(" ", Arrays.copyOfRange(arguments, index, arguments.length)) : "";
+        }
+        return tokens.rawFrom(argumentOffset + index);
+    }
 }
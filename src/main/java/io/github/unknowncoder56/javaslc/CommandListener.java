@@ -2,6 +2,7 @@ package io.github.unknowncoder56.javaslc;
 
 /**
  * An interface to implement the method for receiving command (messages sent with the currently set bot prefix) events.
+ * Commands matching a handler registered with {@link Bot#registerCommand(String, CommandListener, String...)} are only passed to that handler, all other commands are passed to every {@link CommandListener} added to the bot.
  */
 public interface CommandListener {
 
@@ -0,0 +1,183 @@
+package io.github.unknowncoder56.javaslc;
+
+import io.github.unknowncoder56.javaslc.metrics.Histogram;
+import io.github.unknowncoder56.javaslc.metrics.MetricsRegistry;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An index of registered commands. Command names and aliases are looked up in hash maps, and each command can have subcommands which are looked up the same way on the following arguments, so the cost of finding the handler of a command does not grow with the number of registered commands.
+ * @see Bot#registerCommand(String, CommandListener, String...)
+ */
+class CommandRouter {
+
+    private final Node root = new Node();
+    private final boolean caseInsensitive;
+    private final MetricsRegistry metrics;
+
+    /**
+     * A command (or subcommand) and its subcommands.
+     */
+    private static final class Node {
+
+        private final Map<String, Node> children = new ConcurrentHashMap<>();
+        private volatile Registration registration;
+    }
+
+    /**
+     * A registered handler and the optional signature of its arguments.
+     */
+    private static final class Registration {
+
+        private final String command;
+        private final CommandListener handler;
+        private final CommandSignature signature;
+        private final Histogram latency;
+
+        private Registration(String command, CommandListener handler, CommandSignature signature, Histogram latency) {
+            this.command = command;
+            this.handler = handler;
+            this.signature = signature;
+            this.latency = latency;
+        }
+    }
+
+    /**
+     * The result of routing a command: the handler to run and how many arguments were consumed as subcommand names.
+     */
+    static final class Route {
+
+        private final Registration registration;
+        private final int depth;
+
+        private Route(Registration registration, int depth) {
+            this.registration = registration;
+            this.depth = depth;
+        }
+
+        /**
+         * Gets the registered path of the matched command, which is the same for all its aliases and however its names were written in the message.
+         * @return The registered path of the matched command.
+         */
+        String getCommand() {
+            return registration.command;
+        }
+
+        /**
+         * Gets the handler of the matched command.
+         * @return The handler of the matched command.
+         */
+        CommandListener getHandler() {
+            return registration.handler;
+        }
+
+        /**
+         * Gets the signature of the arguments of the matched command.
+         * @return The signature of the matched command, or {@code null} if it was registered without one.
+         */
+        CommandSignature getSignature() {
+            return registration.signature;
+        }
+
+        /**
+         * Gets the latency histogram of the matched command, shared by its aliases.
+         * @return The latency histogram of the matched command.
+         */
+        Histogram getLatency() {
+            return registration.latency;
+        }
+
+        /**
+         * Gets the number of arguments which were consumed as subcommand names.
+         * @return The number of consumed arguments.
+         */
+        int getDepth() {
+            return depth;
+        }
+    }
+
+    /**
+     * Constructor to build an empty router.
+     * @param caseInsensitive Whether command names are matched ignoring case.
+     * @param metrics The metrics recording the latency of each command.
+     */
+    CommandRouter(boolean caseInsensitive, MetricsRegistry metrics) {
+        this.caseInsensitive = caseInsensitive;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Registers a handler for a command path, replacing any previous handler of the same path.
+     * @param path The command name, or several space-separated names for a subcommand (for example {@code "config set"}).
+     * @param signature The signature of the arguments of the command, or {@code null} to leave them unparsed.
+     * @param handler The handler of the command.
+     * @param aliases Alternative names for the last element of the path.
+     */
+    void register(String path, CommandSignature signature, CommandListener handler, String... aliases) {
+        String[] names = path.trim().split(" +");
+        Node parent = root;
+        for (int i = 0; i < names.length - 1; i++) {
+            parent = parent.children.computeIfAbsent(key(names[i]), name -> new Node());
+        }
+        Node node = parent.children.computeIfAbsent(key(names[names.length - 1]), name -> new Node());
+        String command = String.join(" ", names);
+        node.registration = new Registration(command, handler, signature, metrics.histogram("javaslc.command.latency", "command", key(command)));
+        for (String alias : aliases) {
+            parent.children.put(key(alias), node);
+        }
+    }
+
+    /**
+     * Removes the handler of a command path. Its aliases and subcommands are kept.
+     * @param path The command path, as passed to {@link #register(String, CommandSignature, CommandListener, String...)}.
+     * @return Whether a handler was removed.
+     */
+    boolean unregister(String path) {
+        Node node = root;
+        for (String name : path.trim().split(" +")) {
+            node = node.children.get(key(name));
+            if (node == null) {
+                return false;
+            }
+        }
+        boolean removed = node.registration != null;
+        node.registration = null;
+        return removed;
+    }
+
+    /**
+     * Finds the handler of a command. Subcommands are matched on the leading arguments, and the deepest match with a handler wins.
+     * @param tokens The tokens of the command, token 0 being the command name without the prefix.
+     * @return The matched route, or {@code null} if no registered command matches.
+     */
+    Route route(TokenizedCommand tokens) {
+        Node node = root.children.get(key(tokens.get(0)));
+        if (node == null) {
+            return null;
+        }
+        Registration registration = node.registration;
+        int depth = 0;
+        for (int i = 0; i + 1 < tokens.size() && !node.children.isEmpty(); i++) {
+            node = node.children.get(key(tokens.get(i + 1)));
+            if (node == null) {
+                break;
+            }
+            if (node.registration != null) {
+                registration = node.registration;
+                depth = i + 1;
+            }
+        }
+        return registration == null ? null : new Route(registration, depth);
+    }
+
+    /**
+     * Normalizes a command name for lookup, lowercasing it if command names are matched ignoring case.
+     * @param name The command name.
+     * @return The normalized name.
+     */
+    String key(String name) {
+        return caseInsensitive ? name.toLowerCase(Locale.ROOT) : name;
+    }
+}
@@ -0,0 +1,236 @@
+package io.github.unknowncoder56.javaslc;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The compiled argument declaration of a command. It is built once with {@link CommandSignatureBuilder} and reused to parse the arguments of every invocation of the command, so the parsing cost per invocation only depends on the number of arguments.
+ * @see Bot#registerCommand(String, CommandSignature, CommandListener, String...)
+ * @see ParsedArguments
+ */
+public class CommandSignature {
+
+    private final Parameter[] arguments;
+    private final Parameter[] options;
+    private final Map<String, Parameter> parametersByName = new HashMap<>();
+    private final Map<String, Parameter> optionsByName = new HashMap<>();
+    private final String usage;
+
+    /**
+     * A declared argument, flag or option, and its compiled lookup data.
+     */
+    static final class Parameter {
+
+        private final String name;
+        private final ArgumentType type;
+        private final Class<?> enumClass;
+        private final boolean required;
+        private final String defaultText;
+        private final boolean flag;
+        private int index;
+        private Object defaultValue;
+        private Map<String, Object> enumConstants;
+
+        /**
+         * Constructor to declare a parameter. This constructor has default-level access and is only used by the {@link CommandSignatureBuilder} class.
+         */
+        Parameter(String name, ArgumentType type, Class<?> enumClass, boolean required, String defaultText, boolean flag) {
+            this.name = name;
+            this.type = type;
+            this.enumClass = enumClass;
+            this.required = required;
+            this.defaultText = defaultText;
+            this.flag = flag;
+        }
+    }
+
+    /**
+     * The constructor of the {@link CommandSignature} class. This constructor has default-level access and is only used by the {@link CommandSignatureBuilder} class.
+     */
+    CommandSignature(Parameter[] arguments, Parameter[] options) throws IllegalArgumentException {
+        this.arguments = arguments;
+        this.options = options;
+        StringBuilder usageBuilder = new StringBuilder();
+        boolean optionalSeen = false;
+        int index = 0;
+        for (Parameter argument : arguments) {
+            if (argument.required && optionalSeen) {
+                throw new IllegalArgumentException("Required argument " + argument.name + " follows an optional argument.");
+            }
+            if (argument.type == ArgumentType.GREEDY_STRING && argument != arguments[arguments.length - 1]) {
+                throw new IllegalArgumentException("Greedy argument " + argument.name + " must be the last argument.");
+            }
+            if (argument.type == ArgumentType.ENUM && argument.enumClass == null) {
+                throw new IllegalArgumentException("Enum argument " + argument.name + " must be added with addEnumArgument.");
+            }
+            optionalSeen |= !argument.required;
+            compile(argument, index++, parametersByName);
+            usageBuilder.append(usageBuilder.length() == 0 ? "" : " ")
+                    .append(argument.required ? '<' : '[')
+                    .append(argument.name).append(':').append(typeName(argument))
+                    .append(argument.defaultText != null ? "=" + argument.defaultText : "")
+                    .append(argument.required ? '>' : ']');
+        }
+        for (Parameter option : options) {
+            if (option.type == ArgumentType.ENUM || option.type == ArgumentType.GREEDY_STRING) {
+                throw new IllegalArgumentException("Option --" + option.name + " cannot be of type " + option.type.name() + ".");
+            }
+            compile(option, index++, parametersByName);
+            optionsByName.put(option.name, option);
+            usageBuilder.append(usageBuilder.length() == 0 ? "" : " ")
+                    .append("[--").append(option.name)
+                    .append(option.flag ? "" : " <" + typeName(option) + ">")
+                    .append(']');
+        }
+        usage = usageBuilder.toString();
+    }
+
+    /**
+     * Private utility method to index a parameter and parse its enum constants and default value.
+     */
+    private void compile(Parameter parameter, int index, Map<String, Parameter> byName) throws IllegalArgumentException {
+        if (byName.put(parameter.name, parameter) != null) {
+            throw new IllegalArgumentException("Duplicate argument name " + parameter.name + ".");
+        }
+        parameter.index = index;
+        if (parameter.type == ArgumentType.ENUM) {
+            parameter.enumConstants = new HashMap<>();
+            for (Object constant : parameter.enumClass.getEnumConstants()) {
+                parameter.enumConstants.put(((Enum<?>) constant).name().toLowerCase(Locale.ROOT), constant);
+            }
+        }
+        if (parameter.flag) {
+            parameter.defaultValue = Boolean.FALSE;
+        } else if (parameter.defaultText != null) {
+            try {
+                parameter.defaultValue = convert(parameter, parameter.defaultText);
+            } catch (ArgumentParseException e) {
+                throw new IllegalArgumentException("Invalid default value for " + parameter.name + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Parses the arguments of a command.
+     * @param context The {@link CommandContext} of the command.
+     * @return The parsed arguments.
+     * @throws ArgumentParseException If the arguments do not match the signature.
+     */
+    public ParsedArguments parse(CommandContext context) throws ArgumentParseException {
+        Object[] values = new Object[arguments.length + options.length];
+        int position = 0;
+        int count = context.getArgumentCount();
+        for (int i = 0; i < count; i++) {
+            String token = context.getArgument(i);
+            if (options.length > 0 && token.length() > 2 && token.startsWith("--")) {
+                int equals = token.indexOf('=');
+                Parameter option = optionsByName.get(equals < 0 ? token.substring(2) : token.substring(2, equals));
+                if (option != null) {
+                    if (option.flag) {
+                        if (equals >= 0) {
+                            throw new ArgumentParseException("Flag --" + option.name + " does not take a value.", usage);
+                        }
+                        values[option.index] = Boolean.TRUE;
+                    } else if (equals >= 0) {
+                        values[option.index] = convert(option, token.substring(equals + 1));
+                    } else if (i + 1 < count) {
+                        values[option.index] = convert(option, context.getArgument(++i));
+                    } else {
+                        throw new ArgumentParseException("Missing value for option --" + option.name + ".", usage);
+                    }
+                    continue;
+                }
+            }
+            if (position >= arguments.length) {
+                throw new ArgumentParseException("Too many arguments.", usage);
+            }
+            Parameter argument = arguments[position++];
+            if (argument.type == ArgumentType.GREEDY_STRING) {
+                values[argument.index] = context.getRawArguments(i);
+                break;
+            }
+            values[argument.index] = convert(argument, token);
+        }
+        for (; position < arguments.length; position++) {
+            if (arguments[position].required) {
+                throw new ArgumentParseException("Missing argument " + arguments[position].name + ".", usage);
+            }
+        }
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) {
+                values[i] = i < arguments.length ? arguments[i].defaultValue : options[i - arguments.length].defaultValue;
+            }
+        }
+        return new ParsedArguments(this, values, context.getBot());
+    }
+
+    /**
+     * Private utility method to convert the text of an argument to the value of its type.
+     */
+    private Object convert(Parameter parameter, String text) throws ArgumentParseException {
+        try {
+            switch (parameter.type) {
+                case INTEGER:
+                    return Integer.parseInt(text);
+                case LONG:
+                    return Long.parseLong(text);
+                case USER_ID:
+                    String userId = text.startsWith("@") ? text.substring(1) : text;
+                    if (userId.isEmpty()) {
+                        throw new ArgumentParseException("Argument " + parameter.name + " must be a user ID.", usage);
+                    }
+                    return userId;
+                case ENUM:
+                    Object constant = parameter.enumConstants.get(text.toLowerCase(Locale.ROOT));
+                    if (constant == null) {
+                        throw new ArgumentParseException("Argument " + parameter.name + " must be one of " + String.join(", ", enumNames(parameter.enumClass)) + ".", usage);
+                    }
+                    return constant;
+                default:
+                    return text;
+            }
+        } catch (NumberFormatException e) {
+            throw new ArgumentParseException("Argument " + parameter.name + " must be " + (parameter.type == ArgumentType.INTEGER ? "an integer" : "a long integer") + ".", usage);
+        }
+    }
+
+    /**
+     * Private utility method to get the name of the type of a parameter shown in usage messages.
+     */
+    private static String typeName(Parameter parameter) {
+        return parameter.type == ArgumentType.ENUM ? String.join("|", enumNames(parameter.enumClass)) : parameter.type.getDisplayName();
+    }
+
+    /**
+     * Private utility method to get the lower-case constant names of an enum.
+     */
+    private static String[] enumNames(Class<?> enumClass) {
+        Object[] constants = enumClass.getEnumConstants();
+        String[] names = new String[constants.length];
+        for (int i = 0; i < constants.length; i++) {
+            names[i] = ((Enum<?>) constants[i]).name().toLowerCase(Locale.ROOT);
+        }
+        return names;
+    }
+
+    /**
+     * Gets the index of a parameter in the parsed values. This method has default-level access and is only used by the {@link ParsedArguments} class.
+     * @throws IllegalArgumentException If no parameter has the name.
+     */
+    int indexOf(String name) throws IllegalArgumentException {
+        Parameter parameter = parametersByName.get(name);
+        if (parameter == null) {
+            throw new IllegalArgumentException("Unknown argument " + name + ".");
+        }
+        return parameter.index;
+    }
+
+    /**
+     * Gets the usage of the arguments, for example {@code <amount:int> [reason:text...] [--silent]}. Required arguments are shown in angle brackets, optional arguments, flags and options in square brackets.
+     * @return The usage of the arguments.
+     */
+    public String getUsage() {
+        return usage;
+    }
+}
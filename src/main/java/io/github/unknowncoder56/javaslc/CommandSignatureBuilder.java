@@ -0,0 +1,109 @@
+package io.github.unknowncoder56.javaslc;
+
+import java.util.ArrayList;
+
+/**
+ * A builder class to declare the arguments of a command and compile them into a {@link CommandSignature}.
+ * Positional arguments are matched in the order they are added. Flags ({@code --name}) and options ({@code --name value} or {@code --name=value}) can appear anywhere before a {@link ArgumentType#GREEDY_STRING} argument.
+ */
+public class CommandSignatureBuilder {
+
+    private final ArrayList<CommandSignature.Parameter> arguments = new ArrayList<>();
+    private final ArrayList<CommandSignature.Parameter> options = new ArrayList<>();
+
+    /**
+     * Private constructor to force the usage of {@link CommandSignatureBuilder#newInstance()}.
+     * @see CommandSignatureBuilder#newInstance()
+     */
+    private CommandSignatureBuilder() {
+
+    }
+
+    /**
+     * Returns a new {@link CommandSignatureBuilder} instance. This method is used for instantiation to enable chaining of method calls.
+     * @return A new {@link CommandSignatureBuilder} instance to which method calls are to be chained.
+     */
+    public static CommandSignatureBuilder newInstance() {
+        return new CommandSignatureBuilder();
+    }
+
+    /**
+     * Adds a required positional argument.
+     * @param name The name of the argument.
+     * @param type The type of the argument. Use {@link CommandSignatureBuilder#addEnumArgument(String, Class)} for {@link ArgumentType#ENUM}.
+     * @return The {@link CommandSignatureBuilder} instance to facilitate chaining of method calls.
+     */
+    public CommandSignatureBuilder addArgument(String name, ArgumentType type) {
+        arguments.add(new CommandSignature.Parameter(name, type, null, true, null, false));
+        return this;
+    }
+
+    /**
+     * Adds an optional positional argument. Optional arguments must come after all required ones.
+     * @param name The name of the argument.
+     * @param type The type of the argument. Use {@link CommandSignatureBuilder#addOptionalEnumArgument(String, Class, String)} for {@link ArgumentType#ENUM}.
+     * @param defaultValue The value used when the argument is missing, as it would be typed, or {@code null} for no value.
+     * @return The {@link CommandSignatureBuilder} instance to facilitate chaining of method calls.
+     */
+    public CommandSignatureBuilder addOptionalArgument(String name, ArgumentType type, String defaultValue) {
+        arguments.add(new CommandSignature.Parameter(name, type, null, false, defaultValue, false));
+        return this;
+    }
+
+    /**
+     * Adds a required positional argument whose value is a constant of an enum, matched ignoring case.
+     * @param name The name of the argument.
+     * @param enumClass The class of the enum.
+     * @param <E> The type of the enum.
+     * @return The {@link CommandSignatureBuilder} instance to facilitate chaining of method calls.
+     */
+    public <E extends Enum<E>> CommandSignatureBuilder addEnumArgument(String name, Class<E> enumClass) {
+        arguments.add(new CommandSignature.Parameter(name, ArgumentType.ENUM, enumClass, true, null, false));
+        return this;
+    }
+
+    /**
+     * Adds an optional positional argument whose value is a constant of an enum, matched ignoring case.
+     * @param name The name of the argument.
+     * @param enumClass The class of the enum.
+     * @param defaultValue The name of the constant used when the argument is missing, or {@code null} for no value.
+     * @param <E> The type of the enum.
+     * @return The {@link CommandSignatureBuilder} instance to facilitate chaining of method calls.
+     */
+    public <E extends Enum<E>> CommandSignatureBuilder addOptionalEnumArgument(String name, Class<E> enumClass, String defaultValue) {
+        arguments.add(new CommandSignature.Parameter(name, ArgumentType.ENUM, enumClass, false, defaultValue, false));
+        return this;
+    }
+
+    /**
+     * Adds a boolean flag, given as {@code --name}.
+     * @param name The name of the flag.
+     * @return The {@link CommandSignatureBuilder} instance to facilitate chaining of method calls.
+     * @see ParsedArguments#hasFlag(String)
+     */
+    public CommandSignatureBuilder addFlag(String name) {
+        options.add(new CommandSignature.Parameter(name, ArgumentType.STRING, null, false, null, true));
+        return this;
+    }
+
+    /**
+     * Adds an option with a value, given as {@code --name value} or {@code --name=value}.
+     * @param name The name of the option.
+     * @param type The type of the value. {@link ArgumentType#ENUM} and {@link ArgumentType#GREEDY_STRING} are not allowed.
+     * @param defaultValue The value used when the option is missing, as it would be typed, or {@code null} for no value.
+     * @return The {@link CommandSignatureBuilder} instance to facilitate chaining of method calls.
+     */
+    public CommandSignatureBuilder addOption(String name, ArgumentType type, String defaultValue) {
+        options.add(new CommandSignature.Parameter(name, type, null, false, defaultValue, false));
+        return this;
+    }
+
+    /**
+     * Validates the declared arguments and compiles them into a reusable {@link CommandSignature}. Default values are parsed here, once.
+     * @return The compiled {@link CommandSignature}.
+     * @throws IllegalArgumentException If the declaration is invalid, for example a required argument after an optional one, a greedy argument which is not the last one, a duplicate name or an invalid default value.
+     */
+    public CommandSignature build() throws IllegalArgumentException {
+        return new CommandSignature(arguments.toArray(new CommandSignature.Parameter[0]), options.toArray(new CommandSignature.Parameter[0]));
+    }
+}
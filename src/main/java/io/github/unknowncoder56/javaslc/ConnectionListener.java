@@ -0,0 +1,15 @@
+package io.github.unknowncoder56.javaslc;
+
+/**
+ * An interface to implement the method for receiving connection lifecycle events of the server sockets.
+ */
+public interface ConnectionListener {
+
+    /**
+     * Method to implement for receiving connection state changes. It is called on the socket event thread, so it should return quickly.
+     * @param connection The {@link ServerConnection} of the server, holding its new state and health counters.
+     * @param state The new state of the connection.
+     * @see ConnectionState
+     */
+    void onConnectionStateChange(ServerConnection connection, ConnectionState state);
+}
@@ -0,0 +1,34 @@
+package io.github.unknowncoder56.javaslc;
+
+/**
+ * The enum containing the states of the socket connection to a server.
+ * @see ConnectionListener
+ * @see ServerConnection#getState()
+ */
+public enum ConnectionState {
+
+    /**
+     * The socket is connecting for the first time.
+     */
+    CONNECTING,
+
+    /**
+     * The socket is connected and receiving messages.
+     */
+    CONNECTED,
+
+    /**
+     * The socket lost its connection, reconnection will be attempted.
+     */
+    DISCONNECTED,
+
+    /**
+     * The socket is trying to reconnect.
+     */
+    RECONNECTING,
+
+    /**
+     * The socket gave up reconnecting, or was closed.
+     */
+    CLOSED
+}
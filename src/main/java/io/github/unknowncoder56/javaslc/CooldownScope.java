@@ -0,0 +1,28 @@
+package io.github.unknowncoder56.javaslc;
+
+/**
+ * The enum containing what a cooldown limit is counted per.
+ * @see Cooldowns#limit(String, CooldownScope, int, java.time.Duration)
+ */
+public enum CooldownScope {
+
+    /**
+     * One limit per user, across all servers.
+     */
+    USER,
+
+    /**
+     * One limit per server, shared by all its users.
+     */
+    SERVER,
+
+    /**
+     * One limit per user in each server.
+     */
+    USER_IN_SERVER,
+
+    /**
+     * One limit for the whole bot.
+     */
+    GLOBAL
+}
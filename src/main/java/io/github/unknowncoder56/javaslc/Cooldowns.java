@@ -0,0 +1,176 @@
+package io.github.unknowncoder56.javaslc;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A cooldown and throttling engine for commands. Each limit is a token bucket allowing a number of uses per period, counted per user, per server, per user in each server or for the whole bot, for one command or for all commands. A use is only allowed if every limit that applies to it allows it.
+ * The buckets of each limit are held by the same token bucket rate limiter as the REST calls, in a concurrent hash map with a lock per bucket, so concurrent commands of different users do not contend, and a bucket is dropped once it has been idle long enough to be full again, so the memory used follows the number of recently active users instead of growing forever.
+ * Limits are keyed on the registered path of a command, so they also apply to its aliases. Enforce them for all commands with {@link BotBuilder#setCooldowns(Cooldowns)}, check them in a handler with {@link Cooldowns#tryAcquire(CommandContext)}, or drop throttled commands before they are dispatched with {@link Cooldowns#asFilter(Bot)}.
+ * @see BotBuilder#setCooldowns(Cooldowns)
+ */
+public class Cooldowns {
+
+    private final Map<String, List<Limit>> commandLimits = new ConcurrentHashMap<>();
+    private final List<Limit> globalLimits = new CopyOnWriteArrayList<>();
+
+    /**
+     * A limit and the {@link RateLimiter} holding its token buckets.
+     */
+    private static final class Limit {
+
+        private final CooldownScope scope;
+        private final RateLimiter rateLimiter;
+
+        private Limit(CooldownScope scope, int permits, Duration period) throws IllegalArgumentException {
+            if (scope == null) {
+                throw new IllegalArgumentException("Cooldown scope must be set.");
+            }
+            if (permits < 1) {
+                throw new IllegalArgumentException("Cooldown permits must be at least 1.");
+            }
+            if (period == null || period.isZero() || period.isNegative()) {
+                throw new IllegalArgumentException("Cooldown period must be positive.");
+            }
+            this.scope = scope;
+            // The bucket holds all permits of a period and is refilled over the period.
+            this.rateLimiter = new RateLimiter(permits * 1_000_000_000d / period.toNanos(), permits);
+        }
+    }
+
+    /**
+     * Adds a limit to one command.
+     * @param command The path of the command as registered with {@link Bot#registerCommand(String, CommandListener, String...)}, as returned by {@link CommandContext#getRegisteredCommand()}. Its aliases share the limit.
+     * @param scope What the limit is counted per.
+     * @param permits The number of uses allowed per period, which may all be made at once.
+     * @param period The period in which the uses are allowed, which must be positive.
+     * @return The {@link Cooldowns} instance to facilitate chaining of method calls.
+     * @throws IllegalArgumentException If the permits are less than 1 or the period is not positive.
+     */
+    public Cooldowns limit(String command, CooldownScope scope, int permits, Duration period) throws IllegalArgumentException {
+        Limit limit = new Limit(scope, permits, period);
+        commandLimits.computeIfAbsent(command, name -> new CopyOnWriteArrayList<>()).add(limit);
+        return this;
+    }
+
+    /**
+     * Adds a limit to all commands together, for example to throttle a user spamming different commands.
+     * @param scope What the limit is counted per.
+     * @param permits The number of uses allowed per period, which may all be made at once.
+     * @param period The period in which the uses are allowed, which must be positive.
+     * @return The {@link Cooldowns} instance to facilitate chaining of method calls.
+     * @throws IllegalArgumentException If the permits are less than 1 or the period is not positive.
+     */
+    public Cooldowns limitAll(CooldownScope scope, int permits, Duration period) throws IllegalArgumentException {
+        globalLimits.add(new Limit(scope, permits, period));
+        return this;
+    }
+
+    /**
+     * Records a use of a command if all its limits allow it.
+     * @param command The registered path of the command, as returned by {@link CommandContext#getRegisteredCommand()}.
+     * @param serverId The ID of the server the command was sent in.
+     * @param userId The user ID of the user who sent the command.
+     * @return 0 if the use is allowed and was recorded, otherwise the number of nanoseconds until it would be allowed.
+     */
+    public long tryAcquire(String command, String serverId, String userId) {
+        long now = System.nanoTime();
+        List<Limit> limits = commandLimits.get(command);
+        List<Limit> acquired = null;
+        long wait = 0;
+        if (limits != null) {
+            for (Limit limit : limits) {
+                wait = limit.rateLimiter.tryAcquire(key(limit.scope, serverId, userId), now);
+                if (wait > 0) {
+                    break;
+                }
+                acquired = add(acquired, limit);
+            }
+        }
+        if (wait == 0) {
+            for (Limit limit : globalLimits) {
+                wait = limit.rateLimiter.tryAcquire(key(limit.scope, serverId, userId), now);
+                if (wait > 0) {
+                    break;
+                }
+                acquired = add(acquired, limit);
+            }
+        }
+        if (wait > 0 && acquired != null) {
+            for (Limit limit : acquired) {
+                limit.rateLimiter.refund(key(limit.scope, serverId, userId));
+            }
+        }
+        return wait;
+    }
+
+    /**
+     * Records a use of the command of a context if all its limits allow it.
+     * @param context The context of the command.
+     * @return 0 if the use is allowed and was recorded, otherwise the number of nanoseconds until it would be allowed.
+     */
+    public long tryAcquire(CommandContext context) {
+        return tryAcquire(context.getRegisteredCommand(), context.getServerId(), context.getOwnerId());
+    }
+
+    /**
+     * Creates a {@link MessageFilter} dropping the commands which are over their limits before they are dispatched. The command is found by tokenizing and routing the message the same way the bot does, so the filter costs one more routing per command than {@link BotBuilder#setCooldowns(Cooldowns)}. Messages which are not commands of the bot are accepted.
+     * @param bot The bot whose prefixes identify commands.
+     * @return A filter enforcing the limits.
+     * @see Bot#addMessageFilter(MessageFilter)
+     */
+    public MessageFilter asFilter(Bot bot) {
+        return message -> {
+            String command = bot.resolveCommand(message);
+            return command == null || tryAcquire(command, message.getServerId(), message.getOwner()) == 0;
+        };
+    }
+
+    /**
+     * Gets the number of buckets currently held, which is about the number of users, servers or pairs which used a limited command within its period.
+     * @return The number of buckets.
+     */
+    public int size() {
+        int size = 0;
+        for (List<Limit> limits : commandLimits.values()) {
+            for (Limit limit : limits) {
+                size += limit.rateLimiter.size();
+            }
+        }
+        for (Limit limit : globalLimits) {
+            size += limit.rateLimiter.size();
+        }
+        return size;
+    }
+
+    /**
+     * Private utility method to remember a limit whose token was taken, creating the list on first use.
+     */
+    private static List<Limit> add(List<Limit> acquired, Limit limit) {
+        if (acquired == null) {
+            acquired = new ArrayList<>(2);
+        }
+        acquired.add(limit);
+        return acquired;
+    }
+
+    /**
+     * Private utility method to build the bucket key of a use in a scope.
+     */
+    private static String key(CooldownScope scope, String serverId, String userId) {
+        switch (scope) {
+            case USER:
+                return userId;
+            case SERVER:
+                return serverId;
+            case USER_IN_SERVER:
+                return serverId + ':' + userId;
+            default:
+                return "";
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package io.github.unknowncoder56.javaslc;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The dispatch stage between the server sockets and the {@link MessageListener}s and {@link CommandListener}s of a {@link Bot}. Messages are queued on a fixed number of lanes, each with a bounded queue and its own worker thread. All messages of a server go to the same lane, so they are handled in order, while different servers are handled in parallel.
+ * Obtain the instance of a bot with {@link Bot#getDispatcher()}.
+ * @see BotBuilder#setDispatchThreads(int)
+ * @see OverflowPolicy
+ */
+public class Dispatcher {
+
+    /**
+     * The default capacity of the queue of each lane.
+     */
+    static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    private final Bot bot;
+    private final Lane[] lanes;
+    private final OverflowPolicy overflowPolicy;
+    private final LongAdder dispatched = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder handled = new LongAdder();
+    private final LongAdder handlerNanos = new LongAdder();
+    private final AtomicLong maxHandlerNanos = new AtomicLong();
+    private final ThreadFactory threadFactory;
+    // Started by the first dispatched task, so a bot which is built but never started holds no dispatch threads.
+    private final Thread[] workers;
+    private volatile boolean started;
+    private volatile boolean shutdown;
+
+    /**
+     * The task queued to wake up an idle lane when the dispatcher shuts down.
+     */
+    private static final Runnable WAKE_UP = () -> {};
+
+    /**
+     * A queue and the worker thread draining it.
+     */
+    private final class Lane implements Runnable {
+
+        private final BlockingQueue<Runnable> queue;
+
+        private Lane(int queueCapacity) {
+            queue = new ArrayBlockingQueue<>(queueCapacity);
+        }
+
+        @Override
+        public void run() {
+            while (!shutdown || !queue.isEmpty()) {
+                Runnable task;
+                try {
+                    task = queue.take();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (task == WAKE_UP) {
+                    continue;
+                }
+                long start = System.nanoTime();
+                try {
+                    task.run();
+                } catch (Throwable t) {
+                    ErrorListener errorListener = bot.getErrorListener();
+                    if (errorListener != null) {
+                        errorListener.onError(t instanceof Exception ? (Exception) t : new Exception(t), "dispatch");
+                    }
+                }
+                recordLatency(System.nanoTime() - start);
+            }
+        }
+    }
+
+    /**
+     * Constructor to build a dispatcher. Its worker threads are started when the first task is dispatched. This constructor has default-level access and is only used inside the library.
+     * @param bot The {@link Bot} whose {@link ErrorListener} is notified of rejected messages and failed handlers.
+     * @param threads The number of lanes (worker threads). A value of 0 runs the listeners directly on the socket event thread.
+     * @param queueCapacity The capacity of the queue of each lane.
+     * @param overflowPolicy The behaviour when the queue of a lane is full.
+     * @param threadFactory The factory creating the worker threads, or {@code null} to use daemon platform threads.
+     */
+    Dispatcher(Bot bot, int threads, int queueCapacity, OverflowPolicy overflowPolicy, ThreadFactory threadFactory) {
+        this.bot = bot;
+        this.overflowPolicy = overflowPolicy;
+        this.lanes = new Lane[threads];
+        this.workers = new Thread[threads];
+        if (threadFactory == null) {
+            AtomicInteger threadNumber = new AtomicInteger();
+            threadFactory = runnable -> {
+                Thread thread = new Thread(runnable, "javaslc-dispatch-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+        }
+        this.threadFactory = threadFactory;
+        for (int i = 0; i < threads; i++) {
+            lanes[i] = new Lane(queueCapacity);
+        }
+    }
+
+    /**
+     * Queues a task on the lane of a server, applying the {@link OverflowPolicy} if the lane is full.
+     * @param serverId The ID of the server the task belongs to.
+     * @param task The task to run.
+     * @return Whether the task was accepted, or {@code false} if it was rejected because the lane is full or the dispatcher is shut down.
+     */
+    boolean dispatch(String serverId, Runnable task) {
+        if (shutdown) {
+            rejected.increment();
+            return false;
+        }
+        if (lanes.length == 0) {
+            dispatched.increment();
+            long start = System.nanoTime();
+            task.run();
+            recordLatency(System.nanoTime() - start);
+            return true;
+        }
+        if (!started) {
+            startWorkers();
+        }
+        BlockingQueue<Runnable> queue = lanes[(serverId.hashCode() & 0x7fffffff) % lanes.length].queue;
+        switch (overflowPolicy) {
+            case BLOCK:
+                try {
+                    queue.put(task);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    dropped.increment();
+                    return false;
+                }
+                break;
+            case DROP_OLDEST:
+                while (!queue.offer(task)) {
+                    if (queue.poll() != null) {
+                        dropped.increment();
+                    }
+                }
+                break;
+            case REJECT:
+                if (!queue.offer(task)) {
+                    rejected.increment();
+                    ErrorListener errorListener = bot.getErrorListener();
+                    if (errorListener != null) {
+                        errorListener.onError(new RejectedExecutionException("Dispatch queue full, rejected message from server " + serverId), "dispatch");
+                    }
+                    return false;
+                }
+                break;
+        }
+        // A shutdown racing with this call may have let the worker drain its queue and exit before the task was queued. Taking the task back
+        // fails only if a worker already took it to run it, so a task is either run or reported as rejected, never lost.
+        if (shutdown && queue.remove(task)) {
+            rejected.increment();
+            return false;
+        }
+        dispatched.increment();
+        return true;
+    }
+
+    /**
+     * Stops accepting new tasks. The lanes finish running the tasks already queued, then their worker threads exit. This method has default-level access and is only used by the {@link Bot} class.
+     */
+    void shutdown() {
+        shutdown = true;
+        for (Lane lane : lanes) {
+            // A full lane does not need to be woken up, it exits when it has drained its queue.
+            lane.queue.offer(WAKE_UP);
+        }
+    }
+
+    /**
+     * Waits for the worker threads to finish the queued tasks after {@link Dispatcher#shutdown()}. This method has default-level access and is only used by the {@link Bot} class.
+     * @param deadlineNanos The {@link System#nanoTime()} after which to stop waiting.
+     * @return Whether all worker threads have exited.
+     * @throws InterruptedException If the current thread is interrupted while waiting.
+     */
+    boolean awaitTermination(long deadlineNanos) throws InterruptedException {
+        if (!started) {
+            // No task was ever dispatched, so there are no worker threads to wait for.
+            return true;
+        }
+        for (Thread worker : workers) {
+            if (worker == null) {
+                continue;
+            }
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+            if (remainingMillis <= 0) {
+                return allExited();
+            }
+            worker.join(remainingMillis);
+        }
+        return allExited();
+    }
+
+    /**
+     * Private utility method to create and start the worker threads, once.
+     */
+    private synchronized void startWorkers() {
+        if (started) {
+            return;
+        }
+        for (int i = 0; i < lanes.length; i++) {
+            workers[i] = threadFactory.newThread(lanes[i]);
+            workers[i].start();
+        }
+        started = true;
+    }
+
+    /**
+     * Private utility method to check whether all worker threads have exited.
+     */
+    private boolean allExited() {
+        for (Thread worker : workers) {
+            if (worker != null && worker.isAlive()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Private utility method to record the latency of one handled task.
+     */
+    private void recordLatency(long nanos) {
+        handled.increment();
+        handlerNanos.add(nanos);
+        long max = maxHandlerNanos.get();
+        while (nanos > max && !maxHandlerNanos.compareAndSet(max, nanos)) {
+            max = maxHandlerNanos.get();
+        }
+    }
+
+    /**
+     * Gets the number of messages currently waiting in all lanes.
+     * @return The total queue depth.
+     */
+    public int getQueueDepth() {
+        int depth = 0;
+        for (Lane lane : lanes) {
+            depth += lane.queue.size();
+        }
+        return depth;
+    }
+
+    /**
+     * Gets the number of messages accepted by the dispatcher, not counting the messages rejected when full or shut down.
+     * @return The number of dispatched messages.
+     */
+    public long getDispatchedCount() {
+        return dispatched.sum();
+    }
+
+    /**
+     * Gets the number of messages dropped by the {@link OverflowPolicy#DROP_OLDEST} policy (or by an interrupted {@link OverflowPolicy#BLOCK}).
+     * @return The number of dropped messages.
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Gets the number of messages rejected by the {@link OverflowPolicy#REJECT} policy, or because the dispatcher was shut down.
+     * @return The number of rejected messages.
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * Gets the number of messages whose listeners have finished running.
+     * @return The number of handled messages.
+     */
+    public long getHandledCount() {
+        return handled.sum();
+    }
+
+    /**
+     * Gets the average time spent running the listeners of one message.
+     * @return The average handler latency in nanoseconds, or 0 if no message was handled yet.
+     */
+    public long getAverageHandlerLatencyNanos() {
+        long count = handled.sum();
+        return count == 0 ? 0 : handlerNanos.sum() / count;
+    }
+
+    /**
+     * Gets the longest time spent running the listeners of one message.
+     * @return The maximum handler latency in nanoseconds.
+     */
+    public long getMaxHandlerLatencyNanos() {
+        return maxHandlerNanos.get();
+    }
+}
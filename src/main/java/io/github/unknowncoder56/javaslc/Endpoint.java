@@ -0,0 +1,23 @@
+package io.github.unknowncoder56.javaslc;
+
+/**
+ * The enum containing the SLChat endpoints the bot calls, used to configure rate limits.
+ * @see BotBuilder#setRateLimit(Endpoint, double, int)
+ */
+public enum Endpoint {
+
+    /**
+     * Sending messages with {@link Bot#send(String, String)}. Rate limited per server.
+     */
+    SEND,
+
+    /**
+     * Joining servers with {@link Bot#join(String)}. Rate limited for all servers together.
+     */
+    JOIN,
+
+    /**
+     * Changing bot properties with {@link Bot#change(Bot.ChangeKey, String)}. Rate limited for all keys together.
+     */
+    CHANGE
+}
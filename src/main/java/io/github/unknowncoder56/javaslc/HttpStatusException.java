@@ -0,0 +1,37 @@
+package io.github.unknowncoder56.javaslc;
+
+import java.io.IOException;
+
+/**
+ * An exception thrown when the SLChat API responds with a 4xx or 5xx status code.
+ */
+public class HttpStatusException extends IOException {
+
+    private final int statusCode;
+
+    /**
+     * Constructor to create an instance of the exception.
+     * @param statusCode The HTTP status code of the response.
+     * @param reasonPhrase The HTTP reason phrase of the response.
+     */
+    public HttpStatusException(int statusCode, String reasonPhrase) {
+        super("(" + statusCode + ") " + reasonPhrase);
+        this.statusCode = statusCode;
+    }
+
+    /**
+     * Gets the HTTP status code of the response.
+     * @return The HTTP status code of the response.
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * Gets whether the request may succeed if it is retried later, which is the case for 429 (Too Many Requests) and 5xx responses.
+     * @return Whether the request may succeed if it is retried.
+     */
+    public boolean isRetriable() {
+        return statusCode == 429 || statusCode >= 500;
+    }
+}
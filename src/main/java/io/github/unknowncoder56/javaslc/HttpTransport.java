@@ -0,0 +1,231 @@
+package io.github.unknowncoder56.javaslc;
+
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.cookie.CookieStore;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.NameValuePair;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.net.WWWFormCodec;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+/**
+ * A class holding the long-lived, pooled HTTP client used for the SLChat REST API. One instance is created per {@link Bot} from the values set in {@link BotBuilder} and is shared by every {@link User} the bot creates, so that connections (and their TLS sessions) are kept alive and reused between calls.
+ * The client is asynchronous: requests are multiplexed over a few I/O reactor threads, so thousands of concurrent calls do not need thousands of blocked threads. The futures of the calls are completed on the callback executor, never on the I/O threads, so code chained on them cannot stall the client.
+ */
+class HttpTransport implements Closeable {
+
+    /**
+     * The default maximum number of pooled connections.
+     */
+    static final int DEFAULT_MAX_CONNECTIONS = 50;
+
+    /**
+     * The default maximum number of pooled connections per route (host).
+     */
+    static final int DEFAULT_MAX_CONNECTIONS_PER_ROUTE = 20;
+
+    /**
+     * The default connect timeout.
+     */
+    static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(10);
+
+    /**
+     * The default response timeout.
+     */
+    static final Duration DEFAULT_RESPONSE_TIMEOUT = Duration.ofSeconds(30);
+
+    /**
+     * The default time an idle connection is kept alive in the pool.
+     */
+    static final Duration DEFAULT_KEEP_ALIVE = Duration.ofSeconds(60);
+
+    private static HttpTransport defaultTransport;
+
+    private final CloseableHttpAsyncClient client;
+    private final Executor callbackExecutor;
+
+    /**
+     * Constructor to build a transport with its own connection pool and start its I/O threads.
+     * @param maxConnections The maximum number of pooled connections.
+     * @param maxConnectionsPerRoute The maximum number of pooled connections per route (host).
+     * @param connectTimeout The timeout for establishing a connection.
+     * @param responseTimeout The timeout for waiting for a response.
+     * @param keepAlive The time an idle connection is kept alive in the pool.
+     * @param callbackExecutor The executor completing the futures of the calls.
+     */
+    HttpTransport(int maxConnections, int maxConnectionsPerRoute, Duration connectTimeout, Duration responseTimeout, Duration keepAlive, Executor callbackExecutor) {
+        PoolingAsyncClientConnectionManager connectionManager = PoolingAsyncClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeout.toMillis()))
+                        .setSocketTimeout(Timeout.ofMilliseconds(responseTimeout.toMillis()))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(5))
+                        .build())
+                .build();
+        client = HttpAsyncClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectTimeout.toMillis()))
+                        .setResponseTimeout(Timeout.ofMilliseconds(responseTimeout.toMillis()))
+                        .setConnectionKeepAlive(TimeValue.ofMilliseconds(keepAlive.toMillis()))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(keepAlive.toMillis()))
+                .build();
+        client.start();
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    /**
+     * Gets the process-wide transport used by {@link User} instances which were not created by a {@link Bot}. It is created lazily with the default values, and its I/O threads run until {@link HttpTransport#closeDefault()} is called. A bot never uses it, each bot owns its transport and closes it when it is shut down.
+     * @return The process-wide default transport.
+     */
+    static synchronized HttpTransport getDefault() {
+        if (defaultTransport == null) {
+            defaultTransport = new HttpTransport(DEFAULT_MAX_CONNECTIONS, DEFAULT_MAX_CONNECTIONS_PER_ROUTE, DEFAULT_CONNECT_TIMEOUT, DEFAULT_RESPONSE_TIMEOUT, DEFAULT_KEEP_ALIVE, ForkJoinPool.commonPool());
+        }
+        return defaultTransport;
+    }
+
+    /**
+     * Closes the process-wide transport if it was created, stopping its I/O threads. The next call to {@link HttpTransport#getDefault()} creates a new one.
+     */
+    static synchronized void closeDefault() {
+        if (defaultTransport != null) {
+            defaultTransport.close();
+            defaultTransport = null;
+        }
+    }
+
+    /**
+     * Executes a GET request without blocking.
+     * @param url The URL to request.
+     * @return A {@link CompletableFuture} containing the response body, or completed exceptionally with an {@link IOException}, or an {@link HttpStatusException} if the server responds with a 4xx or 5xx status code.
+     */
+    CompletableFuture<String> getAsync(String url) {
+        return execute(SimpleRequestBuilder.get(url).build(), null, SimpleHttpResponse::getBodyText);
+    }
+
+    /**
+     * Executes a GET request and waits for the response body. This is only meant for callers which cannot continue without the response, like the startup of a bot.
+     * @param url The URL to request.
+     * @return The response body as a {@link String}.
+     * @throws IOException If an I/O error occurs while executing the request, or an {@link HttpStatusException} if the server responds with a 4xx or 5xx status code.
+     */
+    String get(String url) throws IOException {
+        try {
+            return getAsync(url).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for " + url);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Executes a form-encoded POST request with the given cookies without blocking. The response body is discarded.
+     * @param url The URL to request.
+     * @param form The form fields to send.
+     * @param cookieStore The cookies to send with this request, which must not be shared with other requests as the cookies set by the response are added to it.
+     * @return A {@link CompletableFuture} that will be completed when the server has responded, or completed exceptionally with an {@link IOException}, or an {@link HttpStatusException} if the server responds with a 4xx or 5xx status code.
+     */
+    CompletableFuture<Void> postAsync(String url, List<? extends NameValuePair> form, CookieStore cookieStore) {
+        SimpleHttpRequest post = SimpleRequestBuilder.post(url)
+                .setBody(WWWFormCodec.format(form, StandardCharsets.UTF_8), ContentType.APPLICATION_FORM_URLENCODED)
+                .build();
+        HttpClientContext context = HttpClientContext.create();
+        context.setCookieStore(cookieStore);
+        return execute(post, context, response -> null);
+    }
+
+    /**
+     * Private utility method to send a request and complete its future on the callback executor, failing it on a 4xx or 5xx status code.
+     */
+    private <T> CompletableFuture<T> execute(SimpleHttpRequest request, HttpClientContext context, Function<SimpleHttpResponse, T> reader) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        client.execute(request, context, new FutureCallback<>() {
+            @Override
+            public void completed(SimpleHttpResponse response) {
+                complete(future, () -> {
+                    int code = response.getCode();
+                    if (400 <= code && code < 600) {
+                        future.completeExceptionally(new HttpStatusException(code, response.getReasonPhrase()));
+                    } else {
+                        future.complete(reader.apply(response));
+                    }
+                });
+            }
+
+            @Override
+            public void failed(Exception e) {
+                complete(future, () -> future.completeExceptionally(e));
+            }
+
+            @Override
+            public void cancelled() {
+                complete(future, () -> future.completeExceptionally(new CancellationException("Request cancelled")));
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Private utility method to run a completion on the callback executor, or on the calling I/O thread if the executor no longer accepts tasks, so that a future is never left incomplete.
+     */
+    private void complete(CompletableFuture<?> future, Runnable completion) {
+        Runnable guarded = () -> {
+            try {
+                completion.run();
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        };
+        try {
+            callbackExecutor.execute(guarded);
+        } catch (RejectedExecutionException e) {
+            guarded.run();
+        }
+    }
+
+    /**
+     * Closes the underlying HTTP client, which also stops its I/O threads and shuts down its connection pool. Calls still running are completed exceptionally.
+     */
+    @Override
+    public void close() {
+        client.close(CloseMode.GRACEFUL);
+    }
+}
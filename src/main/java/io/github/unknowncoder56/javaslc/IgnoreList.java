@@ -0,0 +1,81 @@
+package io.github.unknowncoder56.javaslc;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link MessageFilter} dropping the messages of ignored servers and users. The lists can be changed while the bot is running, and checking a message is two hash lookups.
+ * @see MessageFilters#ignoreList()
+ */
+public class IgnoreList implements MessageFilter {
+
+    private final Set<String> servers = ConcurrentHashMap.newKeySet();
+    private final Set<String> users = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The constructor of the {@link IgnoreList} class. This constructor has default-level access, use {@link MessageFilters#ignoreList()} instead.
+     */
+    IgnoreList() {
+
+    }
+
+    @Override
+    public boolean accept(InboundMessage message) {
+        return !servers.contains(message.getServerId()) && !users.contains(message.getOwner());
+    }
+
+    /**
+     * Ignores all messages from a server.
+     * @param serverId The ID of the server.
+     * @return The {@link IgnoreList} instance to facilitate chaining of method calls.
+     */
+    public IgnoreList ignoreServer(String serverId) {
+        servers.add(serverId);
+        return this;
+    }
+
+    /**
+     * Stops ignoring a server.
+     * @param serverId The ID of the server.
+     * @return Whether the server was ignored.
+     */
+    public boolean unignoreServer(String serverId) {
+        return servers.remove(serverId);
+    }
+
+    /**
+     * Ignores all messages from a user, in every server.
+     * @param userId The user ID of the user.
+     * @return The {@link IgnoreList} instance to facilitate chaining of method calls.
+     */
+    public IgnoreList ignoreUser(String userId) {
+        users.add(userId);
+        return this;
+    }
+
+    /**
+     * Stops ignoring a user.
+     * @param userId The user ID of the user.
+     * @return Whether the user was ignored.
+     */
+    public boolean unignoreUser(String userId) {
+        return users.remove(userId);
+    }
+
+    /**
+     * Gets the ignored servers.
+     * @return An unmodifiable view of the IDs of the ignored servers.
+     */
+    public Set<String> getIgnoredServers() {
+        return Collections.unmodifiableSet(servers);
+    }
+
+    /**
+     * Gets the ignored users.
+     * @return An unmodifiable view of the user IDs of the ignored users.
+     */
+    public Set<String> getIgnoredUsers() {
+        return Collections.unmodifiableSet(users);
+    }
+}
@@ -0,0 +1,94 @@
+package io.github.unknowncoder56.javaslc;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.json.JSONObject;
+
+/**
+ * An immutable, decoded inbound message. Each {@code prompt} event is decoded once into an instance of this class, which is passed to the {@link MessageFilter}s of the bot and then used to build the {@link MessageContext} and {@link CommandContext} of the message.
+ */
+public final class InboundMessage {
+
+    private final String serverId;
+    private final String content;
+    private final String owner;
+    private final String messageId;
+
+    /**
+     * Constructor to build a decoded message.
+     * @param serverId The ID of the server where the message was sent.
+     * @param content The message content.
+     * @param owner The user ID of the message owner (author).
+     * @param messageId The ID of the message, or {@code null} if the server did not send one.
+     */
+    InboundMessage(String serverId, String content, String owner, String messageId) {
+        this.serverId = serverId;
+        this.content = content;
+        this.owner = owner;
+        this.messageId = messageId;
+    }
+
+    /**
+     * Decodes a {@code prompt} event payload as delivered by socket.io, without serializing and re-parsing it.
+     * @param payload The first argument of the {@code prompt} event.
+     * @return The decoded message.
+     */
+    static InboundMessage fromPrompt(Object payload) {
+        JSONObject prompt = payload instanceof JSONObject ? (JSONObject) payload : new JSONObject(payload.toString());
+        JSONObject message = prompt.getJSONObject("message");
+        return new InboundMessage(
+                prompt.getString("server_id"),
+                message.getString("content"),
+                message.getString("owner"),
+                message.has("id") && !message.isNull("id") ? String.valueOf(message.opt("id")) : null
+        );
+    }
+
+    /**
+     * Decodes a message {@link JsonObject}, as accepted by the public {@link MessageContext} and {@link CommandContext} constructors.
+     * @param message The message JSON.
+     * @param serverId The ID of the server where the message was sent.
+     * @return The decoded message.
+     */
+    static InboundMessage fromJson(JsonObject message, String serverId) {
+        JsonElement id = message.get("id");
+        return new InboundMessage(
+                serverId,
+                message.get("content").getAsString(),
+                message.get("owner").getAsString(),
+                id == null || id.isJsonNull() ? null : id.getAsString()
+        );
+    }
+
+    /**
+     * Gets the ID of the server where the message was sent.
+     * @return The ID of the server where the message was sent.
+     */
+    public String getServerId() {
+        return serverId;
+    }
+
+    /**
+     * Gets the message content.
+     * @return The message content.
+     */
+    public String getContent() {
+        return content;
+    }
+
+    /**
+     * Gets the user ID of the message owner (author).
+     * @return The user ID of the message owner.
+     */
+    public String getOwner() {
+        return owner;
+    }
+
+    /**
+     * Gets the ID of the message.
+     * @return The ID of the message, or {@code null} if the server did not send one.
+     */
+    public String getMessageId() {
+        return messageId;
+    }
+}
@@ -6,12 +6,15 @@ import java.util.concurrent.CompletableFuture;
 
 /**
  * A class to create a context object which contains details about the message like message content, owner (author), server ID and {@link Bot} instance.
+ * The bot creates one context per received message and passes the same instance to all its listeners, so listeners must not rely on receiving their own instance.
  */
 public class MessageContext {
 
     private final String content;
-    private final User owner;
+    private final String ownerId;
+    private User owner;
     private final String serverId;
+    private final String messageId;
     private final Bot bot;
 
     /**
@@ -21,9 +24,17 @@ public class MessageContext {
      * @param bot The {@link Bot} instance receiving the message event.
      */
     public MessageContext(JsonObject message, String serverId, Bot bot) {
-        content = message.get("content").getAsString();
-        owner = new User(message.get("owner").getAsString(), bot.getErrorListener());
-        this.serverId = serverId;
+        this(InboundMessage.fromJson(message, serverId), bot);
+    }
+
+    /**
+     * Constructor to create an instance of the class directly from a decoded message. This constructor has default-level access and is only used inside the library.
+     */
+    MessageContext(InboundMessage message, Bot bot) {
+        content = message.getContent();
+        ownerId = message.getOwner();
+        serverId = message.getServerId();
+        messageId = message.getMessageId();
         this.bot = bot;
     }
 
@@ -46,11 +57,24 @@ public class MessageContext {
     }
 
     /**
-     * Gets the message owner.
+     * Gets the message owner. The instance is created on first use and belongs to this message, so setting its {@link ErrorListener} does not affect the other messages of the same owner.
      * @return The {@link User} instance of the owner.
      */
-    public User getOwner() {
-        return owner;
+    public synchronized User getOwner() {
+        User resolved = owner;
+        if (resolved == null) {
+            resolved = bot.newUser(ownerId);
+            owner = resolved;
+        }
+        return resolved;
+    }
+
+    /**
+     * Gets the user ID of the message owner, without resolving the {@link User} instance.
+     * @return The user ID of the owner.
+     */
+    public String getOwnerId() {
+        return ownerId;
     }
 
     /**
@@ -61,6 +85,14 @@ public class MessageContext {
         return serverId;
     }
 
+    /**
+     * Gets the ID of the message.
+     * @return The ID of the message, or {@code null} if the server did not send one.
+     */
+    public String getMessageId() {
+        return messageId;
+    }
+
     /**
      * Gets the {@link Bot} which received the message.
      * @return The {@link Bot} which received the message.
@@ -68,4 +100,22 @@ public class MessageContext {
     public Bot getBot() {
         return bot;
     }
+
+    /**
+     * Gets the state of the server where the message was sent, stored in the {@link StateStore} of the bot under the namespace {@code server/<server ID>}.
+     * @return The {@link StateStore.Scope} of the server.
+     * @throws IllegalStateException If no state store was set in the {@link BotBuilder}.
+     */
+    public StateStore.Scope getServerState() {
+        return bot.getState().scope("server/" + serverId);
+    }
+
+    /**
+     * Gets the state of the message owner, shared by all servers and stored in the {@link StateStore} of the bot under the namespace {@code user/<user ID>}.
+     * @return The {@link StateStore.Scope} of the owner.
+     * @throws IllegalStateException If no state store was set in the {@link BotBuilder}.
+     */
+    public StateStore.Scope getUserState() {
+        return bot.getState().scope("user/" + ownerId);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package io.github.unknowncoder56.javaslc;
+
+/**
+ * An interface to implement a step of the inbound message pipeline of a bot. Filters run in the order they were added, on the socket thread and before the message is dispatched, so a rejected message never reaches the dispatch queue, never gets a {@link MessageContext} and never reaches any listener. Filters should therefore be fast and must not block.
+ * @see Bot#addMessageFilter(MessageFilter)
+ * @see MessageFilters
+ */
+public interface MessageFilter {
+
+    /**
+     * Method to implement for deciding whether a message is handled.
+     * @param message The received message.
+     * @return Whether the message is passed on to the next filter, and after the last one to the listeners.
+     */
+    boolean accept(InboundMessage message);
+
+    /**
+     * Combines this filter with another one, which only runs if this filter accepts the message.
+     * @param next The filter to run after this one.
+     * @return A filter accepting the messages accepted by both filters.
+     */
+    default MessageFilter and(MessageFilter next) {
+        return message -> accept(message) && next.accept(message);
+    }
+}
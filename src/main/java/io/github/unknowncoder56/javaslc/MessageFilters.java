@@ -0,0 +1,135 @@
+package io.github.unknowncoder56.javaslc;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Factory methods of the built-in {@link MessageFilter}s.
+ * @see Bot#addMessageFilter(MessageFilter)
+ */
+public final class MessageFilters {
+
+    /**
+     * Private constructor, this class only has static methods.
+     */
+    private MessageFilters() {
+
+    }
+
+    /**
+     * Creates an empty list of ignored servers and users, which can be changed while the bot is running.
+     * @return A new {@link IgnoreList}.
+     */
+    public static IgnoreList ignoreList() {
+        return new IgnoreList();
+    }
+
+    /**
+     * Creates a filter only accepting the messages of some users, for example the administrators of a bot.
+     * @param userIds The user IDs of the accepted users. The collection is copied.
+     * @return A filter accepting only the messages of the users.
+     */
+    public static MessageFilter allowUsers(Collection<String> userIds) {
+        Set<String> allowed = Set.copyOf(userIds);
+        return message -> allowed.contains(message.getOwner());
+    }
+
+    /**
+     * Creates a filter accepting a random share of the messages, to keep a bot responsive under load or to observe a busy server.
+     * @param rate The share of accepted messages, between 0 and 1.
+     * @return A filter accepting each message with the given probability.
+     */
+    public static MessageFilter sample(double rate) {
+        if (rate >= 1) {
+            return message -> true;
+        }
+        return message -> ThreadLocalRandom.current().nextDouble() < rate;
+    }
+
+    /**
+     * Creates a filter dropping repeated messages: a message is dropped if the same user sent the same content in the same server within the window. This drops spam bursts and messages delivered twice, for example after a reconnection.
+     * @param window How long a message is remembered.
+     * @param maximumSize The maximum number of remembered messages. The oldest ones are forgotten first.
+     * @return A filter dropping repeated messages.
+     */
+    public static MessageFilter dedupe(Duration window, int maximumSize) {
+        return new DuplicateFilter(window.toNanos(), maximumSize);
+    }
+
+    /**
+     * A filter remembering recent messages in insertion order.
+     */
+    private static final class DuplicateFilter implements MessageFilter {
+
+        private final long windowNanos;
+        private final int maximumSize;
+        private final LinkedHashMap<Key, Long> seen;
+
+        private DuplicateFilter(long windowNanos, int maximumSize) {
+            this.windowNanos = windowNanos;
+            this.maximumSize = maximumSize;
+            this.seen = new LinkedHashMap<>(16, 0.75f, false) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, Long> eldest) {
+                    return size() > DuplicateFilter.this.maximumSize;
+                }
+            };
+        }
+
+        @Override
+        public boolean accept(InboundMessage message) {
+            Key key = new Key(message.getServerId(), message.getOwner(), message.getContent());
+            long now = System.nanoTime();
+            synchronized (seen) {
+                Long seenAt = seen.get(key);
+                if (seenAt != null && now - seenAt < windowNanos) {
+                    return false;
+                }
+                // Remove first so the entry moves to the end of the insertion order.
+                seen.remove(key);
+                seen.put(key, now);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * The identity of a message for duplicate detection.
+     */
+    private static final class Key {
+
+        private final String serverId;
+        private final String owner;
+        private final String content;
+        private final int hash;
+
+        private Key(String serverId, String owner, String content) {
+            this.serverId = serverId;
+            this.owner = owner;
+            this.content = content;
+            this.hash = Objects.hash(serverId, owner, content);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return Objects.equals(serverId, other.serverId) && Objects.equals(owner, other.owner) && Objects.equals(content, other.content);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
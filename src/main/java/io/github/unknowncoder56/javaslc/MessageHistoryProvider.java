@@ -0,0 +1,20 @@
+package io.github.unknowncoder56.javaslc;
+
+import com.google.gson.JsonObject;
+
+import java.util.List;
+
+/**
+ * An interface to implement fetching the messages a server received while the socket of the bot was disconnected. SLChat does not document a history endpoint, so the bot only catches up on missed messages if a provider is set with {@link BotBuilder#setMessageHistoryProvider(MessageHistoryProvider)}.
+ */
+public interface MessageHistoryProvider {
+
+    /**
+     * Method to implement for fetching the messages sent to a server after a message.
+     * @param serverId The ID of the server.
+     * @param lastMessageId The ID of the last message the bot received before the disconnection.
+     * @return The message JSON objects (with at least {@code content} and {@code owner}, and {@code id} to avoid duplicates) sent after that message, oldest first.
+     * @throws Exception If the messages could not be fetched.
+     */
+    List<JsonObject> fetchMessagesAfter(String serverId, String lastMessageId) throws Exception;
+}
@@ -0,0 +1,346 @@
+package io.github.unknowncoder56.javaslc;
+
+import io.github.unknowncoder56.javaslc.metrics.Counter;
+import io.github.unknowncoder56.javaslc.metrics.Histogram;
+import io.github.unknowncoder56.javaslc.metrics.MetricsRegistry;
+import io.socket.client.Ack;
+import io.socket.client.Socket;
+import org.json.JSONObject;
+import org.json.JSONString;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The single writer of the socket of one server. Sends are queued and drained in order by at most one task at a time on the shared send executor, so bursts are written as batches and messages to one server never interleave.
+ */
+class OutboundWriter {
+
+    /**
+     * The maximum length of a message built by coalescing queued messages.
+     */
+    static final int MAX_COALESCED_LENGTH = 2000;
+
+    private final Bot bot;
+    private final String serverId;
+    private final Socket socket;
+    private final Settings settings;
+    private final Queue<PendingSend> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    // Guarded by this writer, so that the last future always belongs to the last message queued.
+    private CompletableFuture<Void> lastSend = CompletableFuture.completedFuture(null);
+    private volatile PayloadTemplate payloadTemplate;
+
+    /**
+     * The send settings shared by all writers of a {@link Bot}.
+     */
+    static final class Settings {
+
+        private final ExecutorService executor;
+        private final ScheduledExecutorService scheduler;
+        private final int batchSize;
+        private final boolean coalesce;
+        private final Duration ackTimeout;
+        private final RateLimiter rateLimiter;
+        private final Counter emitted;
+        private final Histogram ackLatency;
+
+        /**
+         * Constructor to build the send settings.
+         * @param executor The executor running the drain tasks of all writers.
+         * @param scheduler The scheduler used for acknowledgement timeouts.
+         * @param batchSize The maximum number of queued messages written by one drain task.
+         * @param coalesce Whether consecutive queued messages are joined into one message.
+         * @param ackTimeout How long to wait for the server to acknowledge a message, or {@code null} to complete sends when they are written.
+         * @param rateLimiter The rate limiter of the {@link Endpoint#SEND} endpoint, keyed by server ID, or {@code null} if sends are not rate limited.
+         * @param metrics The metrics of the bot, recording the emitted messages and the acknowledgement latency.
+         */
+        Settings(ExecutorService executor, ScheduledExecutorService scheduler, int batchSize, boolean coalesce, Duration ackTimeout, RateLimiter rateLimiter, MetricsRegistry metrics) {
+            this.executor = executor;
+            this.scheduler = scheduler;
+            this.batchSize = batchSize;
+            this.coalesce = coalesce;
+            this.ackTimeout = ackTimeout;
+            this.rateLimiter = rateLimiter;
+            this.emitted = metrics.counter("javaslc.send.emitted");
+            this.ackLatency = metrics.histogram("javaslc.send.ack.latency");
+        }
+
+        /**
+         * Drops the rate limit bucket of a server, so the buckets of the servers the bot disconnected from do not stay in memory.
+         * @param serverId The ID of the server.
+         */
+        void forgetServer(String serverId) {
+            if (rateLimiter != null) {
+                rateLimiter.remove(serverId);
+            }
+        }
+
+        /**
+         * Stops the send executor and the scheduler after the writers have been flushed.
+         */
+        void shutdown() {
+            executor.shutdown();
+            scheduler.shutdown();
+        }
+    }
+
+    /**
+     * The JSON text of the fields of the payload which are the same for all messages to the server, built once per token.
+     */
+    private static final class PayloadTemplate {
+
+        private final String token;
+        private final String prefix;
+
+        private PayloadTemplate(String serverId, String token, String userId) {
+            this.token = token;
+            StringBuilder builder = new StringBuilder("{");
+            appendField(builder, "server_id", serverId);
+            appendField(builder, "token", token);
+            appendField(builder, "op", userId);
+            this.prefix = builder.append("\"content\":").toString();
+        }
+
+        /**
+         * Private utility method to append a field and its separator, skipping it if the value is {@code null} as {@link JSONObject#put(String, Object)} does.
+         */
+        private static void appendField(StringBuilder builder, String name, String value) {
+            if (value != null) {
+                builder.append('"').append(name).append("\":").append(JSONObject.quote(value)).append(',');
+            }
+        }
+    }
+
+    /**
+     * The payload of a {@code message} event: the constant prefix of the server followed by the quoted content. socket.io writes a {@link JSONString} as its JSON text, so only the content is encoded per message.
+     */
+    static final class Payload implements JSONString {
+
+        private final String prefix;
+        private final String content;
+
+        private Payload(String prefix, String content) {
+            this.prefix = prefix;
+            this.content = content;
+        }
+
+        @Override
+        public String toJSONString() {
+            return prefix + JSONObject.quote(content) + '}';
+        }
+
+        @Override
+        public String toString() {
+            return toJSONString();
+        }
+    }
+
+    /**
+     * A queued message and the future completed when it is sent.
+     */
+    private static final class PendingSend {
+
+        private final String content;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private PendingSend(String content) {
+            this.content = content;
+        }
+    }
+
+    /**
+     * Constructor to build the writer of a server socket.
+     * @param bot The {@link Bot} owning the socket.
+     * @param serverId The ID of the server.
+     * @param socket The socket of the server.
+     * @param settings The send settings of the bot.
+     */
+    OutboundWriter(Bot bot, String serverId, Socket socket, Settings settings) {
+        this.bot = bot;
+        this.serverId = serverId;
+        this.socket = socket;
+        this.settings = settings;
+    }
+
+    /**
+     * Queues a message.
+     * @param content The message content.
+     * @return A {@link CompletableFuture} that will be completed when the message is written, or acknowledged by the server if an acknowledgement timeout is set.
+     */
+    CompletableFuture<Void> enqueue(String content) {
+        PendingSend pendingSend = new PendingSend(content);
+        synchronized (this) {
+            lastSend = pendingSend.future;
+            queue.add(pendingSend);
+        }
+        scheduleDrain();
+        return pendingSend.future;
+    }
+
+    /**
+     * Private utility method to start a drain task unless one is already running.
+     */
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            try {
+                settings.executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+                failQueued(e);
+            }
+        }
+    }
+
+    /**
+     * Private utility method to fail the queued messages when the send threads were shut down, so their futures do not wait forever.
+     */
+    private void failQueued(RejectedExecutionException e) {
+        RejectedExecutionException error = new RejectedExecutionException("Send threads shut down, message to server " + serverId + " not sent", e);
+        PendingSend pendingSend;
+        while ((pendingSend = queue.poll()) != null) {
+            pendingSend.future.completeExceptionally(error);
+        }
+    }
+
+    /**
+     * Private utility method to write up to one batch of queued messages, then hand over to a new task if more are queued. If the rate limit of the server is reached, the next drain is scheduled for when a token is available.
+     */
+    private void drain() {
+        boolean delayed = false;
+        try {
+            List<PendingSend> batch = new ArrayList<>(Math.min(settings.batchSize, 16));
+            StringBuilder coalesced = null;
+            int written = 0;
+            while (written < settings.batchSize && !queue.isEmpty()) {
+                if (settings.rateLimiter != null) {
+                    long wait = settings.rateLimiter.tryAcquire(serverId);
+                    if (wait > 0) {
+                        try {
+                            settings.scheduler.schedule(this::resumeDrain, wait, TimeUnit.NANOSECONDS);
+                            delayed = true;
+                        } catch (RejectedExecutionException e) {
+                            failQueued(e);
+                        }
+                        break;
+                    }
+                }
+                // This is the only consumer of the queue, so it cannot have been emptied since the check.
+                PendingSend pendingSend = queue.poll();
+                written++;
+                if (settings.coalesce) {
+                    if (coalesced != null && coalesced.length() + 1 + pendingSend.content.length() > MAX_COALESCED_LENGTH) {
+                        emit(coalesced.toString(), batch);
+                        batch = new ArrayList<>();
+                        coalesced = null;
+                    }
+                    coalesced = coalesced == null ? new StringBuilder(pendingSend.content) : coalesced.append('\n').append(pendingSend.content);
+                    batch.add(pendingSend);
+                } else {
+                    emit(pendingSend.content, List.of(pendingSend));
+                }
+            }
+            if (coalesced != null) {
+                emit(coalesced.toString(), batch);
+            }
+        } finally {
+            if (!delayed) {
+                draining.set(false);
+            }
+        }
+        if (!delayed && !queue.isEmpty()) {
+            scheduleDrain();
+        }
+    }
+
+    /**
+     * Private utility method to continue a drain delayed by the rate limit. The drain still owns the writer, so it is released if it cannot continue.
+     */
+    private void resumeDrain() {
+        try {
+            settings.executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            draining.set(false);
+            failQueued(e);
+        }
+    }
+
+    /**
+     * Private utility method to emit one message and complete the futures of the queued messages it contains.
+     */
+    private void emit(String content, List<PendingSend> sends) {
+        try {
+            Payload payload = buildPayload(content);
+            settings.emitted.increment();
+            if (settings.ackTimeout == null) {
+                socket.emit("message", payload);
+                sends.forEach(send -> send.future.complete(null));
+                return;
+            }
+            ScheduledFuture<?> timeoutTask = settings.scheduler.schedule(() -> {
+                TimeoutException timeout = new TimeoutException("Server " + serverId + " did not acknowledge the message in time");
+                sends.forEach(send -> send.future.completeExceptionally(timeout));
+            }, settings.ackTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            long emitNanos = System.nanoTime();
+            socket.emit("message", new Object[]{payload}, (Ack) args -> {
+                settings.ackLatency.recordSince(emitNanos);
+                timeoutTask.cancel(false);
+                sends.forEach(send -> send.future.complete(null));
+            });
+        } catch (Exception e) {
+            ErrorListener errorListener = bot.getErrorListener();
+            if (errorListener != null) {
+                errorListener.onError(e, "send");
+            }
+            bot.logger.log(System.Logger.Level.WARNING, () -> "Failed to send message to server " + serverId + ": " + e.getMessage(), e);
+            sends.forEach(send -> send.future.completeExceptionally(e));
+        }
+    }
+
+    /**
+     * Builds the payload of a {@code message} event.
+     * @param content The message content.
+     * @return The payload to emit.
+     */
+    Payload buildPayload(String content) {
+        String token = bot.getToken();
+        PayloadTemplate template = payloadTemplate;
+        // The session returns the same instance until the token is rotated, so comparing references is enough.
+        if (template == null || template.token != token) {
+            template = new PayloadTemplate(serverId, token, bot.getBotUserId());
+            payloadTemplate = template;
+        }
+        return new Payload(template.prefix, content);
+    }
+
+    /**
+     * Waits for the messages queued so far to be sent. Messages are written in order, so this is the future of the last queued message.
+     * @return A {@link CompletableFuture} that will be completed when the last queued message is sent or has failed.
+     */
+    CompletableFuture<Void> flush() {
+        CompletableFuture<Void> last;
+        synchronized (this) {
+            last = lastSend;
+        }
+        return last.handle((ignored, e) -> null);
+    }
+
+    /**
+     * Gets the number of queued messages.
+     * @return The number of queued messages.
+     */
+    int getQueueDepth() {
+        return queue.size();
+    }
+}
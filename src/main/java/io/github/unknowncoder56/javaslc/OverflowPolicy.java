@@ -0,0 +1,23 @@
+package io.github.unknowncoder56.javaslc;
+
+/**
+ * The enum containing the possible behaviours of the {@link Dispatcher} when the dispatch queue of a server is full.
+ * @see BotBuilder#setDispatchOverflowPolicy(OverflowPolicy)
+ */
+public enum OverflowPolicy {
+
+    /**
+     * Block the socket event thread until there is space in the queue. This applies back-pressure to the socket of the server, but also stalls every other server on the same socket in multiplexed mode, so it must be chosen explicitly.
+     */
+    BLOCK,
+
+    /**
+     * Drop the oldest queued message to make space for the new one. This is the default.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Reject the new message and report it to the {@link ErrorListener} with the error context {@code "dispatch"}.
+     */
+    REJECT
+}
@@ -0,0 +1,107 @@
+package io.github.unknowncoder56.javaslc;
+
+/**
+ * The arguments of a command parsed by its {@link CommandSignature}. Values are looked up by the names they were declared with in the {@link CommandSignatureBuilder}.
+ * @see CommandContext#getParsedArguments()
+ */
+public class ParsedArguments {
+
+    private final CommandSignature signature;
+    private final Object[] values;
+    private final Bot bot;
+
+    /**
+     * The constructor of the {@link ParsedArguments} class. This constructor has default-level access and is only used by the {@link CommandSignature} class.
+     */
+    ParsedArguments(CommandSignature signature, Object[] values, Bot bot) {
+        this.signature = signature;
+        this.values = values;
+        this.bot = bot;
+    }
+
+    /**
+     * Gets whether an argument or option has a value, either given by the user or as a default value.
+     * @param name The name of the argument or option.
+     * @return Whether the argument or option has a value.
+     * @throws IllegalArgumentException If no argument has the name.
+     */
+    public boolean has(String name) throws IllegalArgumentException {
+        return values[signature.indexOf(name)] != null;
+    }
+
+    /**
+     * Gets whether a flag was given.
+     * @param name The name of the flag.
+     * @return Whether the flag was given.
+     * @throws IllegalArgumentException If no argument has the name.
+     */
+    public boolean hasFlag(String name) throws IllegalArgumentException {
+        return Boolean.TRUE.equals(values[signature.indexOf(name)]);
+    }
+
+    /**
+     * Gets the value of an {@link ArgumentType#INTEGER} argument or option.
+     * @param name The name of the argument or option.
+     * @return The value of the argument or option.
+     * @throws IllegalArgumentException If no argument has the name.
+     * @throws IllegalStateException If the argument has no value.
+     */
+    public int getInt(String name) throws IllegalArgumentException, IllegalStateException {
+        return (Integer) get(name);
+    }
+
+    /**
+     * Gets the value of a {@link ArgumentType#LONG} argument or option.
+     * @param name The name of the argument or option.
+     * @return The value of the argument or option.
+     * @throws IllegalArgumentException If no argument has the name.
+     * @throws IllegalStateException If the argument has no value.
+     */
+    public long getLong(String name) throws IllegalArgumentException, IllegalStateException {
+        return (Long) get(name);
+    }
+
+    /**
+     * Gets the value of a {@link ArgumentType#STRING}, {@link ArgumentType#GREEDY_STRING} or {@link ArgumentType#USER_ID} argument or option.
+     * @param name The name of the argument or option.
+     * @return The value of the argument or option, or {@code null} if it has no value.
+     * @throws IllegalArgumentException If no argument has the name.
+     */
+    public String getString(String name) throws IllegalArgumentException {
+        return (String) values[signature.indexOf(name)];
+    }
+
+    /**
+     * Gets the {@link User} of a {@link ArgumentType#USER_ID} argument or option.
+     * @param name The name of the argument or option.
+     * @return The {@link User}, sharing the user profile cache of the bot, or {@code null} if it has no value.
+     * @throws IllegalArgumentException If no argument has the name.
+     */
+    public User getUser(String name) throws IllegalArgumentException {
+        String userId = getString(name);
+        return userId == null ? null : bot.newUser(userId);
+    }
+
+    /**
+     * Gets the value of an {@link ArgumentType#ENUM} argument.
+     * @param name The name of the argument.
+     * @param enumClass The class of the enum.
+     * @param <E> The type of the enum.
+     * @return The enum constant, or {@code null} if it has no value.
+     * @throws IllegalArgumentException If no argument has the name.
+     */
+    public <E extends Enum<E>> E getEnum(String name, Class<E> enumClass) throws IllegalArgumentException {
+        return enumClass.cast(values[signature.indexOf(name)]);
+    }
+
+    /**
+     * Private utility method to get a value which must be present.
+     */
+    private Object get(String name) throws IllegalArgumentException, IllegalStateException {
+        Object value = values[signature.indexOf(name)];
+        if (value == null) {
+            throw new IllegalStateException("Argument " + name + " has no value.");
+        }
+        return value;
+    }
+}
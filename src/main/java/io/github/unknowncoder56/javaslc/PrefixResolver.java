@@ -0,0 +1,250 @@
+package io.github.unknowncoder56.javaslc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The command prefixes of a {@link Bot}: the default prefixes, the prefixes of the servers which override them, and the mention of the bot. Each set of prefixes is an immutable trie which is replaced as a whole on updates, so the dispatch threads match a message without locking and always see a complete set.
+ * Servers are looked up in a {@link ConcurrentHashMap}, so matching stays constant-time in the number of servers with custom prefixes, and the longest matching prefix wins.
+ */
+final class PrefixResolver {
+
+    private static final Trie EMPTY = new Trie(Collections.emptyList());
+
+    private volatile Trie defaults;
+    private final ConcurrentHashMap<String, Trie> servers = new ConcurrentHashMap<>();
+    private volatile String mention;
+
+    /**
+     * Constructor to build the prefixes.
+     * @param defaults The default prefixes. Empty prefixes are ignored.
+     * @param mention The mention matched as a prefix, or {@code null} to not match mentions.
+     */
+    PrefixResolver(Collection<String> defaults, String mention) {
+        this.defaults = Trie.of(defaults);
+        this.mention = mention;
+    }
+
+    /**
+     * Finds the prefix of a message.
+     * @param serverId The ID of the server of the message.
+     * @param content The message content.
+     * @return The index where the command name starts, i.e. the length of the matched prefix and of the whitespace following a mention, or -1 if the message does not start with a prefix.
+     */
+    int match(String serverId, String content) {
+        String mention = this.mention;
+        if (mention != null && content.startsWith(mention)) {
+            // A mention must be followed by whitespace, so a longer user ID starting with the bot user ID does not match.
+            int i = mention.length();
+            if (i < content.length() && Character.isWhitespace(content.charAt(i))) {
+                do {
+                    i++;
+                } while (i < content.length() && Character.isWhitespace(content.charAt(i)));
+                return i;
+            }
+        }
+        Trie trie = servers.isEmpty() ? null : servers.get(serverId);
+        return (trie != null ? trie : defaults).match(content);
+    }
+
+    /**
+     * Checks whether any prefix is set, so the bot can receive commands.
+     * @return Whether a default prefix, a server prefix or the mention is set.
+     */
+    boolean hasPrefixes() {
+        return !defaults.prefixes.isEmpty() || mention != null || !servers.isEmpty();
+    }
+
+    /**
+     * Gets the default prefixes.
+     * @return An unmodifiable list of the default prefixes, in the order they were added.
+     */
+    List<String> getPrefixes() {
+        return defaults.prefixes;
+    }
+
+    /**
+     * Replaces the default prefixes.
+     * @param prefixes The new default prefixes. Empty prefixes are ignored.
+     */
+    synchronized void setPrefixes(Collection<String> prefixes) {
+        defaults = Trie.of(prefixes);
+    }
+
+    /**
+     * Adds a default prefix.
+     * @param prefix The prefix to add.
+     */
+    synchronized void addPrefix(String prefix) {
+        List<String> prefixes = new ArrayList<>(defaults.prefixes);
+        prefixes.add(prefix);
+        defaults = Trie.of(prefixes);
+    }
+
+    /**
+     * Removes a default prefix.
+     * @param prefix The prefix to remove.
+     * @return Whether the prefix was set.
+     */
+    synchronized boolean removePrefix(String prefix) {
+        List<String> prefixes = new ArrayList<>(defaults.prefixes);
+        if (!prefixes.remove(prefix)) {
+            return false;
+        }
+        defaults = Trie.of(prefixes);
+        return true;
+    }
+
+    /**
+     * Gets the prefixes of a server.
+     * @param serverId The ID of the server.
+     * @return An unmodifiable list of the prefixes of the server, or {@code null} if the server uses the default prefixes.
+     */
+    List<String> getServerPrefixes(String serverId) {
+        Trie trie = servers.get(serverId);
+        return trie != null ? trie.prefixes : null;
+    }
+
+    /**
+     * Replaces the prefixes of a server, which then no longer uses the default prefixes.
+     * @param serverId The ID of the server.
+     * @param prefixes The prefixes of the server. Empty prefixes are ignored, so an empty collection disables the prefixes in the server.
+     */
+    void setServerPrefixes(String serverId, Collection<String> prefixes) {
+        servers.put(serverId, Trie.of(prefixes));
+    }
+
+    /**
+     * Removes the prefixes of a server, which then uses the default prefixes again.
+     * @param serverId The ID of the server.
+     * @return Whether the server had its own prefixes.
+     */
+    boolean removeServerPrefixes(String serverId) {
+        return servers.remove(serverId) != null;
+    }
+
+    /**
+     * Gets the mention matched as a prefix.
+     * @return The mention, or {@code null} if mentions are not matched.
+     */
+    String getMention() {
+        return mention;
+    }
+
+    /**
+     * Sets the mention matched as a prefix.
+     * @param mention The mention, or {@code null} to not match mentions.
+     */
+    void setMention(String mention) {
+        this.mention = mention;
+    }
+
+    /**
+     * An immutable set of prefixes and the trie matching them.
+     */
+    private static final class Trie {
+
+        private final List<String> prefixes;
+        private final Node root;
+
+        private Trie(List<String> prefixes) {
+            this.prefixes = prefixes;
+            this.root = prefixes.isEmpty() ? null : Node.build(prefixes, 0);
+        }
+
+        /**
+         * Private utility method to build the trie of a set of prefixes, dropping empty and repeated prefixes.
+         */
+        private static Trie of(Collection<String> prefixes) {
+            LinkedHashSet<String> distinct = new LinkedHashSet<>();
+            for (String prefix : prefixes) {
+                if (prefix != null && !prefix.isEmpty()) {
+                    distinct.add(prefix);
+                }
+            }
+            return distinct.isEmpty() ? EMPTY : new Trie(Collections.unmodifiableList(new ArrayList<>(distinct)));
+        }
+
+        /**
+         * Private utility method to find the length of the longest prefix of a message.
+         */
+        private int match(String content) {
+            Node node = root;
+            int matched = -1;
+            int length = content.length();
+            for (int i = 0; node != null; i++) {
+                if (node.terminal) {
+                    matched = i;
+                }
+                if (i >= length) {
+                    break;
+                }
+                node = node.child(content.charAt(i));
+            }
+            return matched;
+        }
+    }
+
+    /**
+     * A node of a {@link Trie}. The children are kept in arrays sorted by character, so a lookup is a binary search over the few characters following a prefix.
+     */
+    private static final class Node {
+
+        private final char[] keys;
+        private final Node[] children;
+        private final boolean terminal;
+
+        private Node(char[] keys, Node[] children, boolean terminal) {
+            this.keys = keys;
+            this.children = children;
+            this.terminal = terminal;
+        }
+
+        /**
+         * Private utility method to build the node of the prefixes sharing their first {@code depth} characters.
+         */
+        private static Node build(List<String> prefixes, int depth) {
+            boolean terminal = false;
+            List<String> longer = new ArrayList<>(prefixes.size());
+            for (String prefix : prefixes) {
+                if (prefix.length() == depth) {
+                    terminal = true;
+                } else {
+                    longer.add(prefix);
+                }
+            }
+            longer.sort((a, b) -> Character.compare(a.charAt(depth), b.charAt(depth)));
+            List<Character> keys = new ArrayList<>();
+            List<Node> children = new ArrayList<>();
+            int start = 0;
+            while (start < longer.size()) {
+                char key = longer.get(start).charAt(depth);
+                int end = start + 1;
+                while (end < longer.size() && longer.get(end).charAt(depth) == key) {
+                    end++;
+                }
+                keys.add(key);
+                children.add(build(longer.subList(start, end), depth + 1));
+                start = end;
+            }
+            char[] keyArray = new char[keys.size()];
+            for (int i = 0; i < keyArray.length; i++) {
+                keyArray[i] = keys.get(i);
+            }
+            return new Node(keyArray, children.toArray(new Node[0]), terminal);
+        }
+
+        /**
+         * Private utility method to find the child of a character.
+         */
+        private Node child(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            return index >= 0 ? children[index] : null;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package io.github.unknowncoder56.javaslc;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A token bucket rate limiter with one bucket per key (for example per server). Each bucket holds up to {@code burst} tokens and is refilled continuously at {@code permitsPerSecond}.
+ * A bucket which has been idle long enough to be full again is dropped, since a missing bucket is created full, so the memory used follows the number of recently active keys instead of growing forever.
+ */
+class RateLimiter {
+
+    private static final int SWEEP_INTERVAL = 256;
+
+    private final double permitsPerNano;
+    private final int burst;
+    private final long refillNanos;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicInteger operations = new AtomicInteger();
+
+    /**
+     * The token count of one key and the time it was last refilled.
+     */
+    private static final class Bucket {
+
+        private double tokens;
+        private long refilledAt;
+        private boolean removed;
+
+        private Bucket(double tokens, long refilledAt) {
+            this.tokens = tokens;
+            this.refilledAt = refilledAt;
+        }
+    }
+
+    /**
+     * Constructor to build a rate limiter.
+     * @param permitsPerSecond The rate at which each bucket is refilled, which must be positive.
+     * @param burst The capacity of each bucket, i.e. how many calls may be made at once after an idle period, which must be at least 1.
+     * @throws IllegalArgumentException If the rate is not positive or the burst is less than 1.
+     */
+    RateLimiter(double permitsPerSecond, int burst) throws IllegalArgumentException {
+        // A rate of 0 would divide by zero when computing the wait for the next token.
+        if (!(permitsPerSecond > 0) || Double.isInfinite(permitsPerSecond)) {
+            throw new IllegalArgumentException("Rate limit must be a positive number of permits per second.");
+        }
+        if (burst < 1) {
+            throw new IllegalArgumentException("Rate limit burst must be at least 1.");
+        }
+        this.permitsPerNano = permitsPerSecond / 1_000_000_000d;
+        this.burst = burst;
+        this.refillNanos = (long) Math.ceil(burst / permitsPerNano);
+    }
+
+    /**
+     * Takes a token from the bucket of a key if one is available.
+     * @param key The key of the bucket.
+     * @return 0 if a token was taken, otherwise the number of nanoseconds until a token will be available.
+     */
+    long tryAcquire(String key) {
+        return tryAcquire(key, System.nanoTime());
+    }
+
+    /**
+     * Takes a token from the bucket of a key if one is available, at a given time, so several limiters checked for one call see the same time.
+     * @param key The key of the bucket.
+     * @param now The current {@link System#nanoTime()}.
+     * @return 0 if a token was taken, otherwise the number of nanoseconds until a token will be available.
+     */
+    long tryAcquire(String key, long now) {
+        // Sweeping after as many operations as there are buckets keeps its cost constant per operation.
+        if (operations.incrementAndGet() >= Math.max(SWEEP_INTERVAL, buckets.size())) {
+            operations.set(0);
+            sweep(now);
+        }
+        while (true) {
+            Bucket bucket = buckets.computeIfAbsent(key, k -> new Bucket(burst, now));
+            synchronized (bucket) {
+                if (bucket.removed) {
+                    // The bucket was swept or removed after the lookup, so the new bucket of the key is used instead.
+                    continue;
+                }
+                if (now > bucket.refilledAt) {
+                    bucket.tokens = Math.min(burst, bucket.tokens + (now - bucket.refilledAt) * permitsPerNano);
+                    bucket.refilledAt = now;
+                }
+                if (bucket.tokens >= 1) {
+                    bucket.tokens -= 1;
+                    return 0;
+                }
+                return (long) Math.ceil((1 - bucket.tokens) / permitsPerNano);
+            }
+        }
+    }
+
+    /**
+     * Gives back a token taken by {@link RateLimiter#tryAcquire(String, long)}, for example when another limiter refused the same call.
+     * @param key The key of the bucket.
+     */
+    void refund(String key) {
+        Bucket bucket = buckets.get(key);
+        if (bucket != null) {
+            synchronized (bucket) {
+                bucket.tokens = Math.min(burst, bucket.tokens + 1);
+            }
+        }
+    }
+
+    /**
+     * Removes the bucket of a key, for example when the bot leaves a server.
+     * @param key The key of the bucket.
+     */
+    void remove(String key) {
+        Bucket bucket = buckets.remove(key);
+        if (bucket != null) {
+            synchronized (bucket) {
+                bucket.removed = true;
+            }
+        }
+    }
+
+    /**
+     * Gets the number of buckets currently held.
+     * @return The number of buckets.
+     */
+    int size() {
+        return buckets.size();
+    }
+
+    /**
+     * Private utility method to remove the buckets which have been idle long enough to be full again. A missing bucket is created full, so this does not change any limit.
+     */
+    private void sweep(long now) {
+        Iterator<Bucket> iterator = buckets.values().iterator();
+        while (iterator.hasNext()) {
+            Bucket bucket = iterator.next();
+            synchronized (bucket) {
+                if (now - bucket.refilledAt >= refillNanos) {
+                    bucket.removed = true;
+                    iterator.remove();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package io.github.unknowncoder56.javaslc;
+
+import io.github.unknowncoder56.javaslc.metrics.Histogram;
+import io.github.unknowncoder56.javaslc.metrics.MetricsRegistry;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the REST calls of a {@link Bot} through a per-endpoint rate limiter and circuit breaker, and retries calls which failed with a 429, a 5xx or a network error after a jittered exponential backoff.
+ * Calls are asynchronous, so no thread is held while a call is waiting for its response, its rate limit or its next retry.
+ */
+class RequestScheduler {
+
+    /**
+     * The default maximum number of attempts of a call, including the first one.
+     */
+    static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+    /**
+     * The default delay before the first retry.
+     */
+    static final Duration DEFAULT_BASE_DELAY = Duration.ofMillis(500);
+
+    /**
+     * The default maximum delay between retries.
+     */
+    static final Duration DEFAULT_MAX_DELAY = Duration.ofSeconds(10);
+
+    /**
+     * The default number of consecutive failures after which a circuit breaker opens.
+     */
+    static final int DEFAULT_FAILURE_THRESHOLD = 5;
+
+    /**
+     * The default time a circuit breaker stays open.
+     */
+    static final Duration DEFAULT_OPEN_DURATION = Duration.ofSeconds(30);
+
+    private final ScheduledExecutorService scheduler;
+    private final Map<Endpoint, RateLimiter> rateLimiters;
+    private final Map<Endpoint, CircuitBreaker> circuitBreakers = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, Histogram> latencies = new EnumMap<>(Endpoint.class);
+    private final int maxAttempts;
+    private final long baseDelayNanos;
+    private final long maxDelayNanos;
+
+    /**
+     * A REST call which may be attempted several times.
+     */
+    interface Request {
+
+        /**
+         * Starts the call without blocking.
+         * @return A {@link CompletableFuture} that will be completed when the call succeeds, or completed exceptionally if it fails.
+         */
+        CompletableFuture<Void> execute();
+    }
+
+    /**
+     * Constructor to build a request scheduler.
+     * @param scheduler The scheduler used for rate limit and backoff delays.
+     * @param rateLimiters The rate limiter of each limited endpoint.
+     * @param maxAttempts The maximum number of attempts of a call, including the first one.
+     * @param baseDelay The delay before the first retry. Each further retry doubles it.
+     * @param maxDelay The maximum delay between retries.
+     * @param failureThreshold The number of consecutive failures after which the circuit breaker of an endpoint opens, or 0 to disable circuit breakers.
+     * @param openDuration How long a circuit breaker stays open before a trial call is allowed.
+     * @param metrics The metrics of the bot, recording the latency of each attempt per endpoint.
+     */
+    RequestScheduler(ScheduledExecutorService scheduler, Map<Endpoint, RateLimiter> rateLimiters, int maxAttempts, Duration baseDelay, Duration maxDelay, int failureThreshold, Duration openDuration, MetricsRegistry metrics) {
+        this.scheduler = scheduler;
+        this.rateLimiters = rateLimiters;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseDelayNanos = baseDelay.toNanos();
+        this.maxDelayNanos = maxDelay.toNanos();
+        for (Endpoint endpoint : Endpoint.values()) {
+            circuitBreakers.put(endpoint, new CircuitBreaker(failureThreshold, openDuration.toNanos()));
+            // Sends are written to the sockets by the OutboundWriter and never submitted here, so they get no empty histogram.
+            if (endpoint != Endpoint.SEND) {
+                latencies.put(endpoint, metrics.histogram("javaslc.http.latency", "endpoint", endpoint.name().toLowerCase(Locale.ROOT)));
+            }
+        }
+    }
+
+    /**
+     * Submits a call.
+     * @param endpoint The endpoint of the call, selecting its rate limiter and circuit breaker.
+     * @param key The rate limit key of the call, for example the server ID.
+     * @param request The call to make.
+     * @return A {@link CompletableFuture} that will be completed when the call succeeds, or completed exceptionally with the last error when it fails for good, or with a {@link RejectedExecutionException} if the circuit breaker of the endpoint is open or the bot is shut down.
+     */
+    CompletableFuture<Void> submit(Endpoint endpoint, String key, Request request) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        if (scheduler.isShutdown()) {
+            future.completeExceptionally(new RejectedExecutionException("Request scheduler is shut down"));
+            return future;
+        }
+        attempt(endpoint, key, request, future, 1);
+        return future;
+    }
+
+    /**
+     * Gets the rate limiter of an endpoint.
+     * @param endpoint The endpoint.
+     * @return The rate limiter of the endpoint, or {@code null} if it is not rate limited.
+     */
+    RateLimiter getRateLimiter(Endpoint endpoint) {
+        return rateLimiters.get(endpoint);
+    }
+
+    /**
+     * Private utility method to make one attempt of a call, waiting for the rate limiter first.
+     */
+    private void attempt(Endpoint endpoint, String key, Request request, CompletableFuture<Void> future, int attempt) {
+        RateLimiter rateLimiter = rateLimiters.get(endpoint);
+        if (rateLimiter != null) {
+            long wait = rateLimiter.tryAcquire(key);
+            if (wait > 0) {
+                schedule(() -> attempt(endpoint, key, request, future, attempt), wait, future);
+                return;
+            }
+        }
+        CircuitBreaker circuitBreaker = circuitBreakers.get(endpoint);
+        if (!circuitBreaker.allowRequest()) {
+            future.completeExceptionally(new RejectedExecutionException("Circuit breaker of endpoint " + endpoint.name() + " is open"));
+            return;
+        }
+        Histogram latency = latencies.get(endpoint);
+        long start = System.nanoTime();
+        CompletableFuture<Void> call;
+        try {
+            call = request.execute();
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        call.whenComplete((ignored, throwable) -> {
+            if (latency != null) {
+                latency.recordSince(start);
+            }
+            if (throwable == null) {
+                circuitBreaker.onSuccess();
+                future.complete(null);
+                return;
+            }
+            Throwable e = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+            boolean retriable = e instanceof HttpStatusException ? ((HttpStatusException) e).isRetriable() : e instanceof IOException;
+            if (!retriable) {
+                // The failure is not caused by the backend being unavailable, so it does not count towards opening the breaker.
+                circuitBreaker.onSuccess();
+                future.completeExceptionally(e);
+                return;
+            }
+            circuitBreaker.onFailure();
+            if (attempt >= maxAttempts) {
+                future.completeExceptionally(e);
+                return;
+            }
+            schedule(() -> attempt(endpoint, key, request, future, attempt + 1), backoffNanos(attempt), future);
+        });
+    }
+
+    /**
+     * Private utility method to schedule the next attempt of a call, failing the call if the scheduler was shut down in the meantime so its future never hangs.
+     */
+    private void schedule(Runnable next, long delayNanos, CompletableFuture<Void> future) {
+        try {
+            scheduler.schedule(next, delayNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Private utility method to compute the delay before a retry, using exponential backoff with jitter, picking a random delay between half and all of the exponential delay.
+     */
+    private long backoffNanos(int attempt) {
+        long ceiling = baseDelayNanos << Math.min(attempt - 1, 30);
+        if (ceiling <= 0 || ceiling > maxDelayNanos) {
+            ceiling = maxDelayNanos;
+        }
+        return ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1);
+    }
+}
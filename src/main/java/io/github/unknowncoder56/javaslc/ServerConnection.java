@@ -0,0 +1,397 @@
+package io.github.unknowncoder56.javaslc;
+
+import io.github.unknowncoder56.javaslc.metrics.Counter;
+import io.github.unknowncoder56.javaslc.metrics.MetricsRegistry;
+import io.socket.client.Socket;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * The managed connection of a {@link Bot} to one server. It holds the socket and send queue of the server, the state and health counters of the socket, and the ID of the last received message used to catch up on missed messages after a reconnection.
+ * @see Bot#getServerConnection(String)
+ * @see ConnectionListener
+ */
+public class ServerConnection {
+
+    private final String serverId;
+    private final SharedSocket socket;
+    private final OutboundWriter writer;
+    private volatile ConnectionState state = ConnectionState.CONNECTING;
+    private volatile Instant lastConnectedAt;
+    private volatile Instant lastDisconnectedAt;
+    private volatile Exception lastError;
+    private volatile String lastMessageId;
+    private volatile boolean connectedBefore;
+    private final Counter reconnectCount;
+    private final Counter totalReconnectCount;
+    private final LongAdder disconnectCount = new LongAdder();
+    private final LongAdder connectErrorCount = new LongAdder();
+    private final Counter receivedCount;
+    private final Counter dispatchedCount;
+    private final LongAdder recoveredCount = new LongAdder();
+    private List<InboundMessage> catchUpBuffer;
+    private final long createdNanos = System.nanoTime();
+    private volatile Duration connectDuration;
+    private final CompletableFuture<ServerConnection> ready = new CompletableFuture<>();
+
+    /**
+     * The reconnection settings shared by all connections of a {@link Bot}.
+     */
+    static final class Settings {
+
+        private final Duration reconnectDelay;
+        private final Duration reconnectDelayMax;
+        private final int reconnectAttempts;
+        private final MessageHistoryProvider historyProvider;
+        private final ExecutorService catchUpExecutor;
+        private final int startupConcurrency;
+        private final Duration startupTimeout;
+        private final int multiplexedConnections;
+
+        /**
+         * Constructor to build the reconnection settings.
+         * @param reconnectDelay The delay before the first reconnection attempt. Each further attempt doubles it, with random jitter.
+         * @param reconnectDelayMax The maximum delay between reconnection attempts.
+         * @param reconnectAttempts The maximum number of reconnection attempts before the connection is closed, or 0 for no limit.
+         * @param historyProvider The provider of missed messages, or {@code null} to not catch up after reconnecting.
+         * @param catchUpExecutor The bounded executor fetching missed messages from the provider, or {@code null} if there is no provider.
+         * @param startupConcurrency The maximum number of sockets connecting at once during startup, or 0 for no limit.
+         * @param startupTimeout How long startup waits for the sockets to connect.
+         * @param multiplexedConnections The number of sockets shared by all servers, or 0 for one socket per server.
+         */
+        Settings(Duration reconnectDelay, Duration reconnectDelayMax, int reconnectAttempts, MessageHistoryProvider historyProvider, ExecutorService catchUpExecutor, int startupConcurrency, Duration startupTimeout, int multiplexedConnections) {
+            this.reconnectDelay = reconnectDelay;
+            this.reconnectDelayMax = reconnectDelayMax;
+            this.reconnectAttempts = reconnectAttempts;
+            this.historyProvider = historyProvider;
+            this.catchUpExecutor = catchUpExecutor;
+            this.startupConcurrency = startupConcurrency;
+            this.startupTimeout = startupTimeout;
+            this.multiplexedConnections = multiplexedConnections;
+        }
+
+        Duration getReconnectDelay() {
+            return reconnectDelay;
+        }
+
+        Duration getReconnectDelayMax() {
+            return reconnectDelayMax;
+        }
+
+        int getReconnectAttempts() {
+            return reconnectAttempts;
+        }
+
+        MessageHistoryProvider getHistoryProvider() {
+            return historyProvider;
+        }
+
+        ExecutorService getCatchUpExecutor() {
+            return catchUpExecutor;
+        }
+
+        int getStartupConcurrency() {
+            return startupConcurrency;
+        }
+
+        Duration getStartupTimeout() {
+            return startupTimeout;
+        }
+
+        int getMultiplexedConnections() {
+            return multiplexedConnections;
+        }
+
+        /**
+         * Stops the catch-up threads, interrupting the fetches in progress.
+         */
+        void shutdown() {
+            if (catchUpExecutor != null) {
+                catchUpExecutor.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * The constructor of the {@link ServerConnection} class. This constructor has default-level access and is only used by the {@link Bot} class.
+     */
+    ServerConnection(String serverId, SharedSocket socket, OutboundWriter writer, MetricsRegistry metrics) {
+        this.serverId = serverId;
+        this.socket = socket;
+        this.writer = writer;
+        // The counters are looked up once here, so counting a message does not build metric names.
+        this.receivedCount = metrics.counter("javaslc.messages.received", "server", serverId);
+        this.dispatchedCount = metrics.counter("javaslc.messages.dispatched", "server", serverId);
+        this.reconnectCount = metrics.counter("javaslc.reconnects", "server", serverId);
+        this.totalReconnectCount = metrics.counter("javaslc.reconnects");
+        metrics.gauge("javaslc.send.queue.depth", "server", serverId, writer::getQueueDepth);
+    }
+
+    /**
+     * Records a change of the connection state. This method has default-level access and is only used by the {@link Bot} class.
+     * @return Whether the connection was established before, so a {@link ConnectionState#CONNECTED} state is a reconnection.
+     */
+    boolean transition(ConnectionState newState, Exception error) {
+        boolean reconnected = false;
+        if (error != null) {
+            connectErrorCount.increment();
+            lastError = error;
+        }
+        switch (newState) {
+            case CONNECTED:
+                reconnected = connectedBefore;
+                if (reconnected) {
+                    reconnectCount.increment();
+                    totalReconnectCount.increment();
+                }
+                connectedBefore = true;
+                lastConnectedAt = Instant.now();
+                if (!reconnected) {
+                    connectDuration = Duration.ofNanos(System.nanoTime() - createdNanos);
+                    ready.complete(this);
+                }
+                break;
+            case DISCONNECTED:
+                disconnectCount.increment();
+                lastDisconnectedAt = Instant.now();
+                break;
+            case CLOSED:
+                ready.completeExceptionally(lastError != null ? lastError : new IllegalStateException("Connection to server " + serverId + " closed before connecting"));
+                break;
+            default:
+                break;
+        }
+        state = newState;
+        return reconnected;
+    }
+
+    /**
+     * Passes a live message to the dispatcher, or buffers it while missed messages are being caught up on so that it is delivered after them. The decision is made under the lock of the connection, but the message is dispatched after releasing it, so a full lane with the {@link OverflowPolicy#BLOCK} policy does not also stall the catch-up of the server. This method has default-level access and is only used by the {@link Bot} class.
+     */
+    void receive(InboundMessage message, Dispatcher dispatcher, Runnable task) {
+        receivedCount.increment();
+        synchronized (this) {
+            if (catchUpBuffer != null) {
+                catchUpBuffer.add(message);
+                return;
+            }
+            if (message.getMessageId() != null) {
+                lastMessageId = message.getMessageId();
+            }
+        }
+        if (dispatcher.dispatch(serverId, task)) {
+            dispatchedCount.increment();
+        }
+    }
+
+    /**
+     * Starts buffering live messages for a catch-up. This method has default-level access and is only used by the {@link Bot} class.
+     * @return The ID of the last message received before the disconnection, or {@code null} if no catch-up is possible or one is already running.
+     */
+    synchronized String beginCatchUp() {
+        if (catchUpBuffer != null || lastMessageId == null) {
+            return null;
+        }
+        catchUpBuffer = new ArrayList<>();
+        return lastMessageId;
+    }
+
+    /**
+     * Delivers the missed messages, then the live messages buffered during the catch-up, skipping messages already delivered, and stops buffering. Live messages keep being buffered until the buffer is found empty under the lock, so they stay behind the missed ones, while the messages themselves are dispatched without holding the lock. This method has default-level access and is only used by the {@link Bot} class.
+     */
+    void endCatchUp(List<InboundMessage> missed, Dispatcher dispatcher, Function<InboundMessage, Runnable> taskFactory) {
+        Set<String> delivered = new HashSet<>();
+        for (InboundMessage message : missed) {
+            if (message.getMessageId() == null || delivered.add(message.getMessageId())) {
+                recoveredCount.increment();
+                deliver(message, dispatcher, taskFactory);
+            }
+        }
+        while (true) {
+            List<InboundMessage> buffered;
+            synchronized (this) {
+                if (catchUpBuffer == null || catchUpBuffer.isEmpty()) {
+                    catchUpBuffer = null;
+                    return;
+                }
+                buffered = catchUpBuffer;
+                catchUpBuffer = new ArrayList<>();
+            }
+            for (InboundMessage message : buffered) {
+                if (message.getMessageId() == null || delivered.add(message.getMessageId())) {
+                    deliver(message, dispatcher, taskFactory);
+                }
+            }
+        }
+    }
+
+    /**
+     * Private utility method to dispatch a message and remember its ID.
+     */
+    private void deliver(InboundMessage message, Dispatcher dispatcher, Function<InboundMessage, Runnable> taskFactory) {
+        if (message.getMessageId() != null) {
+            lastMessageId = message.getMessageId();
+        }
+        if (dispatcher.dispatch(serverId, taskFactory.apply(message))) {
+            dispatchedCount.increment();
+        }
+    }
+
+    /**
+     * Gets the readiness barrier of the connection. This method has default-level access and is only used by the {@link Bot} class.
+     * @return A {@link CompletableFuture} that will be completed when the socket connects for the first time, or completed exceptionally if it is closed before.
+     */
+    CompletableFuture<ServerConnection> getReadyFuture() {
+        return ready;
+    }
+
+    /**
+     * Gets the socket of the server. This method has default-level access and is only used inside the library.
+     */
+    Socket getSocket() {
+        return socket.getSocket();
+    }
+
+    /**
+     * Gets the socket carrying the server, which is shared with other servers in multiplexed mode. This method has default-level access and is only used by the {@link Bot} class.
+     */
+    SharedSocket getSharedSocket() {
+        return socket;
+    }
+
+    /**
+     * Gets the writer of the socket of the server. This method has default-level access and is only used inside the library.
+     */
+    OutboundWriter getWriter() {
+        return writer;
+    }
+
+    /**
+     * Gets the number of messages queued for sending to the server.
+     * @return The number of queued messages.
+     */
+    public int getSendQueueDepth() {
+        return writer.getQueueDepth();
+    }
+
+    /**
+     * Gets the ID of the server.
+     * @return The ID of the server.
+     */
+    public String getServerId() {
+        return serverId;
+    }
+
+    /**
+     * Gets the current state of the connection.
+     * @return The current {@link ConnectionState}.
+     */
+    public ConnectionState getState() {
+        return state;
+    }
+
+    /**
+     * Checks whether the socket is connected.
+     * @return Whether the socket is connected.
+     */
+    public boolean isConnected() {
+        return state == ConnectionState.CONNECTED;
+    }
+
+    /**
+     * Gets the time the socket last connected.
+     * @return The time of the last connection, or {@code null} if the socket never connected.
+     */
+    public Instant getLastConnectedAt() {
+        return lastConnectedAt;
+    }
+
+    /**
+     * Gets the time taken by the socket to connect for the first time, from its creation.
+     * @return The connect duration, or {@code null} if the socket never connected.
+     */
+    public Duration getConnectDuration() {
+        return connectDuration;
+    }
+
+    /**
+     * Gets the time the socket last lost its connection.
+     * @return The time of the last disconnection, or {@code null} if the socket never disconnected.
+     */
+    public Instant getLastDisconnectedAt() {
+        return lastDisconnectedAt;
+    }
+
+    /**
+     * Gets the last connection error of the socket.
+     * @return The last connection error, or {@code null} if there was none.
+     */
+    public Exception getLastError() {
+        return lastError;
+    }
+
+    /**
+     * Gets the ID of the last message delivered from the server.
+     * @return The ID of the last message, or {@code null} if the server does not send message IDs or no message was received yet.
+     */
+    public String getLastMessageId() {
+        return lastMessageId;
+    }
+
+    /**
+     * Gets the number of times the socket reconnected after losing its connection.
+     * @return The number of reconnections.
+     */
+    public long getReconnectCount() {
+        return reconnectCount.get();
+    }
+
+    /**
+     * Gets the number of times the socket lost its connection.
+     * @return The number of disconnections.
+     */
+    public long getDisconnectCount() {
+        return disconnectCount.sum();
+    }
+
+    /**
+     * Gets the number of failed connection and reconnection attempts.
+     * @return The number of connection errors.
+     */
+    public long getConnectErrorCount() {
+        return connectErrorCount.sum();
+    }
+
+    /**
+     * Gets the number of live messages received by the socket.
+     * @return The number of received messages.
+     */
+    public long getReceivedCount() {
+        return receivedCount.get();
+    }
+
+    /**
+     * Gets the number of messages of the server accepted by the dispatcher, live or recovered.
+     * @return The number of dispatched messages.
+     */
+    public long getDispatchedCount() {
+        return dispatchedCount.get();
+    }
+
+    /**
+     * Gets the number of missed messages delivered after reconnections.
+     * @return The number of recovered messages.
+     */
+    public long getRecoveredCount() {
+        return recoveredCount.sum();
+    }
+}
@@ -0,0 +1,96 @@
+package io.github.unknowncoder56.javaslc;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The servers of a {@link Bot} and their {@link ServerConnection}s. Lookups are lock-free and joins and leaves only lock the bin of their server, so the registry scales to thousands of servers and concurrent joins of one server register a single connection.
+ */
+class ServerRegistry {
+
+    private final ConcurrentHashMap<String, ServerConnection> servers = new ConcurrentHashMap<>();
+
+    /**
+     * Adds the connection of a server unless the server is already registered. A {@link ConnectionState#CLOSED} connection left by a socket which gave up reconnecting is replaced. The connection is made by the caller before this call, so no socket is opened while a bin of the map is locked, and the caller must discard it if this call returns {@code false}.
+     * @param serverId The ID of the server.
+     * @param connection The connection of the server.
+     * @return Whether the connection was added.
+     */
+    boolean register(String serverId, ServerConnection connection) {
+        while (true) {
+            ServerConnection existing = servers.putIfAbsent(serverId, connection);
+            if (existing == null) {
+                return true;
+            }
+            if (existing.getState() != ConnectionState.CLOSED) {
+                return false;
+            }
+            if (servers.replace(serverId, existing, connection)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Removes the connection of a server.
+     * @param serverId The ID of the server.
+     * @return The removed connection, or {@code null} if the server was not registered.
+     */
+    ServerConnection leave(String serverId) {
+        return servers.remove(serverId);
+    }
+
+    /**
+     * Removes the connection of a server if it is still the registered one, so a connection made by a later join is kept.
+     * @param serverId The ID of the server.
+     * @param connection The connection to remove.
+     * @return Whether the connection was removed.
+     */
+    boolean leave(String serverId, ServerConnection connection) {
+        return servers.remove(serverId, connection);
+    }
+
+    /**
+     * Gets the connection of a server.
+     * @param serverId The ID of the server.
+     * @return The connection of the server, or {@code null} if the server is not registered.
+     */
+    ServerConnection get(String serverId) {
+        return servers.get(serverId);
+    }
+
+    /**
+     * Checks whether a server is registered.
+     * @param serverId The ID of the server.
+     * @return Whether the server is registered.
+     */
+    boolean contains(String serverId) {
+        return servers.containsKey(serverId);
+    }
+
+    /**
+     * Gets the IDs of the registered servers.
+     * @return An unmodifiable, weakly consistent view of the server IDs.
+     */
+    Set<String> getServerIds() {
+        return Collections.unmodifiableSet(servers.keySet());
+    }
+
+    /**
+     * Gets the connections of the registered servers.
+     * @return An unmodifiable, weakly consistent view of the connections.
+     */
+    Collection<ServerConnection> getConnections() {
+        return Collections.unmodifiableCollection(servers.values());
+    }
+
+    /**
+     * Gets the number of registered servers.
+     * @return The number of registered servers.
+     */
+    int size() {
+        return servers.size();
+    }
+}
@@ -0,0 +1,113 @@
+package io.github.unknowncoder56.javaslc;
+
+import org.apache.hc.client5.http.cookie.BasicCookieStore;
+import org.apache.hc.client5.http.cookie.Cookie;
+import org.apache.hc.client5.http.cookie.CookieStore;
+import org.apache.hc.client5.http.impl.cookie.BasicClientCookie;
+import org.apache.hc.core5.http.NameValuePair;
+import org.apache.hc.core5.http.message.BasicNameValuePair;
+
+import java.util.List;
+
+/**
+ * The authenticated session of a {@link Bot}: its token, and the cookies and form fields which authenticate its REST calls, built once per token. Each call gets its own cookie store filled with the prebuilt cookies, so cookies set by a response never leak into the snapshot or into other calls.
+ * The credentials are held in one immutable snapshot which is swapped atomically when the token is rotated, so a call reads either the old or the new credentials, never a mix of both. Calls already sent finish with the credentials they were sent with, and retries and later calls use the new ones.
+ */
+final class Session {
+
+    private final String userId;
+    private final String cookieDomain;
+    private volatile Credentials credentials;
+
+    /**
+     * The credentials of one token.
+     */
+    static final class Credentials {
+
+        private final String token;
+        private final Cookie tokenCookie;
+        private final Cookie userIdCookie;
+        private final List<NameValuePair> formFields;
+
+        private Credentials(String token, String userId, String cookieDomain) {
+            this.token = token;
+            this.tokenCookie = cookie("token", token, cookieDomain);
+            this.userIdCookie = cookie("op", userId, cookieDomain);
+            this.formFields = List.of(new BasicNameValuePair("token", token), new BasicNameValuePair("op", userId));
+        }
+
+        /**
+         * Gets the token.
+         * @return The token.
+         */
+        String getToken() {
+            return token;
+        }
+
+        /**
+         * Builds a cookie store holding the session cookies, {@code token} and {@code op}, for one call. The cookies are built once, only the store is new, so a response setting cookies only changes the store of its own call.
+         * @return A new cookie store of the session.
+         */
+        CookieStore newCookieStore() {
+            BasicCookieStore cookies = new BasicCookieStore();
+            cookies.addCookie(tokenCookie);
+            cookies.addCookie(userIdCookie);
+            return cookies;
+        }
+
+        /**
+         * Gets the form fields authenticating a call, {@code token} and {@code op}. They repeat the session cookies for the endpoints which, like {@code /api/change}, read the credentials from the form instead of the cookies.
+         * @return An unmodifiable list of the form fields.
+         */
+        List<NameValuePair> getFormFields() {
+            return formFields;
+        }
+
+        /**
+         * Private utility method to build a session cookie.
+         */
+        private static BasicClientCookie cookie(String name, String value, String domain) {
+            BasicClientCookie cookie = new BasicClientCookie(name, value);
+            cookie.setDomain(domain);
+            cookie.setAttribute("domain", "true");
+            cookie.setPath("/");
+            return cookie;
+        }
+    }
+
+    /**
+     * Constructor to build the session of a bot.
+     * @param token The token of the bot.
+     * @param userId The user ID of the bot.
+     * @param cookieDomain The domain of the session cookies.
+     */
+    Session(String token, String userId, String cookieDomain) {
+        this.userId = userId;
+        this.cookieDomain = cookieDomain;
+        this.credentials = new Credentials(token, userId, cookieDomain);
+    }
+
+    /**
+     * Gets the current credentials. A call should read them once per attempt and use that snapshot for the whole attempt.
+     * @return The current {@link Credentials}.
+     */
+    Credentials current() {
+        return credentials;
+    }
+
+    /**
+     * Gets the current token.
+     * @return The current token.
+     */
+    String getToken() {
+        return credentials.getToken();
+    }
+
+    /**
+     * Replaces the token. The credentials of the new token are built before they are published, so concurrent calls never see them half built.
+     * @param token The new token.
+     */
+    void rotate(String token) {
+        credentials = new Credentials(token, userId, cookieDomain);
+    }
+}
@@ -0,0 +1,102 @@
+package io.github.unknowncoder56.javaslc;
+
+import io.socket.client.Socket;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A socket.io connection and the {@link ServerConnection}s subscribed to it. A dedicated socket carries one server, selected by its URL. A multiplexed socket carries many servers, each subscribed by emitting {@link SharedSocket#SUBSCRIBE_EVENT} after the socket connects.
+ * @see SocketPool
+ */
+class SharedSocket {
+
+    /**
+     * The event emitted on a multiplexed socket to receive the messages of a server. SLChat does not document multiplexing, this assumes a socket.io room per server joined with a {@code {"server_id": ..., "user": ...}} payload, the same parameters a dedicated socket passes in its URL.
+     */
+    static final String SUBSCRIBE_EVENT = "join";
+
+    /**
+     * The event emitted on a multiplexed socket to stop receiving the messages of a server, with the same payload as {@link SharedSocket#SUBSCRIBE_EVENT}.
+     */
+    static final String UNSUBSCRIBE_EVENT = "leave";
+
+    private final Socket socket;
+    private final boolean multiplexed;
+    private final Set<ServerConnection> subscribers = new LinkedHashSet<>();
+    private boolean connected;
+
+    /**
+     * Constructor to wrap a socket.
+     * @param socket The socket.io socket.
+     * @param multiplexed Whether the socket carries several servers.
+     */
+    SharedSocket(Socket socket, boolean multiplexed) {
+        this.socket = socket;
+        this.multiplexed = multiplexed;
+    }
+
+    /**
+     * Adds a server to the socket.
+     * @param connection The connection of the server.
+     * @return Whether the socket is already connected, in which case the caller must subscribe the server itself.
+     */
+    synchronized boolean subscribe(ServerConnection connection) {
+        subscribers.add(connection);
+        return connected;
+    }
+
+    /**
+     * Removes a server from the socket.
+     * @param connection The connection of the server.
+     * @return Whether no server is left on the socket.
+     */
+    synchronized boolean unsubscribe(ServerConnection connection) {
+        subscribers.remove(connection);
+        return subscribers.isEmpty();
+    }
+
+    /**
+     * Records that the socket connected.
+     * @return The servers on the socket at that moment, which must be subscribed again.
+     */
+    synchronized List<ServerConnection> onConnect() {
+        connected = true;
+        return new ArrayList<>(subscribers);
+    }
+
+    /**
+     * Records that the socket lost its connection.
+     * @return The servers on the socket at that moment.
+     */
+    synchronized List<ServerConnection> onDisconnect() {
+        connected = false;
+        return new ArrayList<>(subscribers);
+    }
+
+    /**
+     * Gets the servers on the socket.
+     * @return A snapshot of the connections of the servers on the socket.
+     */
+    synchronized List<ServerConnection> getSubscribers() {
+        return new ArrayList<>(subscribers);
+    }
+
+    /**
+     * Gets the socket.io socket.
+     * @return The socket.io socket.
+     */
+    Socket getSocket() {
+        return socket;
+    }
+
+    /**
+     * Checks whether the socket carries several servers.
+     * @return Whether the socket is multiplexed.
+     */
+    boolean isMultiplexed() {
+        return multiplexed;
+    }
+}
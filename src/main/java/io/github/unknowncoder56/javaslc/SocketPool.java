@@ -0,0 +1,75 @@
+package io.github.unknowncoder56.javaslc;
+
+import java.util.function.Supplier;
+
+/**
+ * A fixed number of multiplexed {@link SharedSocket}s shared by all servers of a {@link Bot}. Sockets are opened lazily, and each new server is put on the socket carrying the fewest servers, so the number of connections, heartbeats and threads no longer grows with the number of servers.
+ * The servers of each socket are counted by the pool itself, from the moment a socket is picked until the server is released, so concurrent joins see each other's picks even before their servers are subscribed to the socket.
+ * @see BotBuilder#setMultiplexedConnections(int)
+ */
+class SocketPool {
+
+    private final SharedSocket[] sockets;
+    private final int[] loads;
+    private final Supplier<SharedSocket> socketFactory;
+
+    /**
+     * Constructor to build a pool.
+     * @param size The maximum number of sockets.
+     * @param socketFactory The function opening a multiplexed socket, returning {@code null} if it could not be made.
+     */
+    SocketPool(int size, Supplier<SharedSocket> socketFactory) {
+        this.sockets = new SharedSocket[size];
+        this.loads = new int[size];
+        this.socketFactory = socketFactory;
+    }
+
+    /**
+     * Picks the socket for a new server, opening a new socket while the pool is not full and every open socket carries a server. The server is counted on the picked socket until it is passed to {@link SocketPool#release(SharedSocket)}.
+     * @return The socket with the fewest servers, or {@code null} if a new socket was needed but could not be made.
+     */
+    synchronized SharedSocket acquire() {
+        int best = 0;
+        for (int i = 1; i < sockets.length; i++) {
+            if (loads[i] < loads[best]) {
+                best = i;
+            }
+        }
+        if (sockets[best] == null) {
+            sockets[best] = socketFactory.get();
+            if (sockets[best] == null) {
+                return null;
+            }
+        }
+        loads[best]++;
+        return sockets[best];
+    }
+
+    /**
+     * Stops counting a server picked by {@link SocketPool#acquire()}, when it leaves the socket or was never subscribed to it.
+     * @param socket The socket of the server.
+     */
+    synchronized void release(SharedSocket socket) {
+        for (int i = 0; i < sockets.length; i++) {
+            if (sockets[i] == socket) {
+                loads[i]--;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Closes all sockets of the pool.
+     */
+    synchronized void close() {
+        for (int i = 0; i < sockets.length; i++) {
+            if (sockets[i] != null) {
+                sockets[i].getSocket().off();
+                sockets[i].getSocket().io().off();
+                sockets[i].getSocket().close();
+                sockets[i] = null;
+                loads[i] = 0;
+            }
+        }
+    }
+}
@@ -9,4 +9,12 @@ public interface StartListener {
      * Method to implement for receiving the bot start event.
      */
     void onStart();
+
+    /**
+     * Method to override for receiving the bot start event with the result of the startup. It is called once the sockets of all servers have connected, or the startup timeout has elapsed. The default implementation calls {@link StartListener#onStart()}.
+     * @param report The {@link StartupReport} listing the servers which connected and failed, and the startup timings.
+     */
+    default void onStart(StartupReport report) {
+        onStart();
+    }
 }
@@ -0,0 +1,122 @@
+package io.github.unknowncoder56.javaslc;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The result of starting a {@link Bot}: which servers were connected before the startup timeout, which were not and why, and how long each step took.
+ * Servers which were not connected in time keep connecting in the background.
+ * @see StartListener#onStart(StartupReport)
+ * @see Bot#getStartupReport()
+ */
+public class StartupReport {
+
+    private final Duration serverListDuration;
+    private final Duration startupDuration;
+    private final Map<String, Duration> connectDurations;
+    private final Map<String, Exception> failures;
+
+    /**
+     * The constructor of the {@link StartupReport} class. This constructor has default-level access and is only used by the {@link Bot} class.
+     */
+    StartupReport(Duration serverListDuration, Duration startupDuration, Map<String, Duration> connectDurations, Map<String, Exception> failures) {
+        this.serverListDuration = serverListDuration;
+        this.startupDuration = startupDuration;
+        this.connectDurations = Collections.unmodifiableMap(connectDurations);
+        this.failures = Collections.unmodifiableMap(failures);
+    }
+
+    /**
+     * Gets the IDs of the servers whose socket connected during startup.
+     * @return The IDs of the connected servers.
+     */
+    public Set<String> getConnectedServerIds() {
+        return connectDurations.keySet();
+    }
+
+    /**
+     * Gets the IDs of the servers whose socket did not connect during startup.
+     * @return The IDs of the servers which failed to connect.
+     */
+    public Set<String> getFailedServerIds() {
+        return failures.keySet();
+    }
+
+    /**
+     * Gets the reason a server did not connect during startup.
+     * @param serverId The ID of the server.
+     * @return The error of the server, a {@link java.util.concurrent.TimeoutException} if it did not connect before the startup timeout, or {@code null} if it connected.
+     */
+    public Exception getFailure(String serverId) {
+        return failures.get(serverId);
+    }
+
+    /**
+     * Checks whether every server connected during startup.
+     * @return Whether no server failed to connect.
+     */
+    public boolean isComplete() {
+        return failures.isEmpty();
+    }
+
+    /**
+     * Gets the time taken to fetch the server list of the bot.
+     * @return The duration of the server list request.
+     */
+    public Duration getServerListDuration() {
+        return serverListDuration;
+    }
+
+    /**
+     * Gets the time taken by the whole startup, until the {@link StartListener} is called.
+     * @return The duration of the startup.
+     */
+    public Duration getStartupDuration() {
+        return startupDuration;
+    }
+
+    /**
+     * Gets the time taken to connect the socket of a server, from its creation to its first connection.
+     * @param serverId The ID of the server.
+     * @return The connect duration of the server, or {@code null} if it did not connect during startup.
+     */
+    public Duration getConnectDuration(String serverId) {
+        return connectDurations.get(serverId);
+    }
+
+    /**
+     * Gets the average time taken to connect the socket of a server.
+     * @return The average connect duration, or {@link Duration#ZERO} if no server connected.
+     */
+    public Duration getAverageConnectDuration() {
+        if (connectDurations.isEmpty()) {
+            return Duration.ZERO;
+        }
+        Duration total = Duration.ZERO;
+        for (Duration duration : connectDurations.values()) {
+            total = total.plus(duration);
+        }
+        return total.dividedBy(connectDurations.size());
+    }
+
+    /**
+     * Gets the longest time taken to connect the socket of a server.
+     * @return The maximum connect duration, or {@link Duration#ZERO} if no server connected.
+     */
+    public Duration getMaxConnectDuration() {
+        Duration max = Duration.ZERO;
+        for (Duration duration : connectDurations.values()) {
+            if (duration.compareTo(max) > 0) {
+                max = duration;
+            }
+        }
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return "StartupReport{connected=" + connectDurations.size() + ", failed=" + failures.size() + ", serverList=" + serverListDuration.toMillis() + "ms, startup=" + startupDuration.toMillis() + "ms, maxConnect=" + getMaxConnectDuration().toMillis() + "ms}";
+    }
+}
@@ -0,0 +1,530 @@
+package io.github.unknowncoder56.javaslc;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
+
+/**
+ * An embedded key-value store for bot data, like per-server settings or user points. All values are held in memory, so reads never touch the disk, and writes are persisted behind the caller: changed keys are collected and appended in batches to a log file by a background thread, so handlers never wait for storage I/O.
+ * Several writes of one key between two flushes are written once with the latest value. When opened, the log is replayed to rebuild the values, stopping at a record torn by a crash, and it is compacted in the background once most of its records are outdated. Writes made less than a flush interval before a crash can be lost.
+ * @see BotBuilder#setStateStore(StateStore)
+ * @see Bot#getState()
+ * @see MessageContext#getServerState()
+ */
+public class StateStore implements AutoCloseable {
+
+    /**
+     * The default delay between two flushes of the changed keys to the log file.
+     */
+    public static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofSeconds(1);
+
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+    private static final int MAX_RECORD_BYTES = 64 * 1024 * 1024;
+    private static final long COMPACTION_MIN_RECORDS = 1024;
+
+    private final Path file;
+    private final ConcurrentHashMap<String, String> values;
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    private final ScheduledThreadPoolExecutor flusher;
+    private volatile BotLogger logger = BotLogger.getDefault();
+    private volatile Exception lastError;
+    private final AtomicBoolean closed = new AtomicBoolean();
+    // The channel and the record count are only used by the flusher thread once the store is built.
+    private FileChannel channel;
+    private long logRecords;
+
+    /**
+     * A view of the keys of a store sharing a namespace, like the keys of one server or one user. The keys of a scope are stored with the namespace and a {@code /} before them.
+     * @see StateStore#scope(String)
+     */
+    public static final class Scope {
+
+        private final StateStore store;
+        private final String prefix;
+
+        private Scope(StateStore store, String namespace) {
+            this.store = store;
+            this.prefix = namespace + "/";
+        }
+
+        /**
+         * Gets the value of a key of the scope.
+         * @param key The key.
+         * @return The value, or {@code null} if the key is not set.
+         */
+        public String get(String key) {
+            return store.get(prefix + key);
+        }
+
+        /**
+         * Gets the value of a key of the scope, or a default value if it is not set.
+         * @param key The key.
+         * @param defaultValue The value returned if the key is not set.
+         * @return The value, or the default value if the key is not set.
+         */
+        public String get(String key, String defaultValue) {
+            return store.get(prefix + key, defaultValue);
+        }
+
+        /**
+         * Sets the value of a key of the scope.
+         * @param key The key.
+         * @param value The value.
+         * @return The previous value, or {@code null} if the key was not set.
+         */
+        public String put(String key, String value) {
+            return store.put(prefix + key, value);
+        }
+
+        /**
+         * Removes a key of the scope.
+         * @param key The key.
+         * @return The removed value, or {@code null} if the key was not set.
+         */
+        public String remove(String key) {
+            return store.remove(prefix + key);
+        }
+
+        /**
+         * Atomically adds to the number stored in a key of the scope.
+         * @param key The key.
+         * @param delta The number to add.
+         * @return The new value.
+         * @throws NumberFormatException If the key holds a value which is not a number.
+         */
+        public long increment(String key, long delta) {
+            return store.increment(prefix + key, delta);
+        }
+    }
+
+    /**
+     * Private constructor, use {@link StateStore#open(Path, Duration)} instead.
+     */
+    private StateStore(Path file, FileChannel channel, ConcurrentHashMap<String, String> values, long logRecords, Duration flushInterval) {
+        this.file = file;
+        this.channel = channel;
+        this.values = values;
+        this.logRecords = logRecords;
+        this.flusher = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "javaslc-state");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushInterval.toNanos(), flushInterval.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Opens a store, creating its log file if it does not exist, and flushes the changed keys every second.
+     * @param file The log file of the store.
+     * @return The opened store.
+     * @throws IOException If the log file could not be read or created.
+     */
+    public static StateStore open(Path file) throws IOException {
+        return open(file, DEFAULT_FLUSH_INTERVAL);
+    }
+
+    /**
+     * Opens a store, creating its log file if it does not exist, and replays the log to rebuild the values. A record torn by a crash ends the replay and is cut from the file.
+     * @param file The log file of the store.
+     * @param flushInterval The delay between two flushes of the changed keys to the log file, which must be positive.
+     * @return The opened store.
+     * @throws IOException If the log file could not be read or created.
+     */
+    public static StateStore open(Path file, Duration flushInterval) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ConcurrentHashMap<String, String> values = new ConcurrentHashMap<>();
+        long logRecords;
+        try {
+            logRecords = replay(channel, values);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return new StateStore(file, channel, values, logRecords, flushInterval);
+    }
+
+    /**
+     * Sets the logger reporting failed flushes. This method has default-level access and is only used by the {@link BotBuilder} class.
+     */
+    void setLogger(BotLogger logger) {
+        this.logger = logger;
+    }
+
+    /**
+     * Gets the value of a key.
+     * @param key The key.
+     * @return The value, or {@code null} if the key is not set.
+     */
+    public String get(String key) {
+        return values.get(key);
+    }
+
+    /**
+     * Gets the value of a key, or a default value if it is not set.
+     * @param key The key.
+     * @param defaultValue The value returned if the key is not set.
+     * @return The value, or the default value if the key is not set.
+     */
+    public String get(String key, String defaultValue) {
+        return values.getOrDefault(key, defaultValue);
+    }
+
+    /**
+     * Checks whether a key is set.
+     * @param key The key.
+     * @return Whether the key is set.
+     */
+    public boolean contains(String key) {
+        return values.containsKey(key);
+    }
+
+    /**
+     * Sets the value of a key. The value is visible to all threads at once and written to the log file with the next flush.
+     * @param key The key.
+     * @param value The value, which must not be {@code null}.
+     * @return The previous value, or {@code null} if the key was not set.
+     * @throws IllegalStateException If the store is closed.
+     */
+    public String put(String key, String value) {
+        ensureOpen();
+        String previous = values.put(key, value);
+        dirty.add(key);
+        return previous;
+    }
+
+    /**
+     * Removes a key. The removal is written to the log file with the next flush.
+     * @param key The key.
+     * @return The removed value, or {@code null} if the key was not set.
+     * @throws IllegalStateException If the store is closed.
+     */
+    public String remove(String key) {
+        ensureOpen();
+        String previous = values.remove(key);
+        if (previous != null) {
+            dirty.add(key);
+        }
+        return previous;
+    }
+
+    /**
+     * Atomically adds to the number stored in a key, which counts as 0 if it is not set.
+     * @param key The key.
+     * @param delta The number to add.
+     * @return The new value.
+     * @throws NumberFormatException If the key holds a value which is not a number.
+     * @throws IllegalStateException If the store is closed.
+     */
+    public long increment(String key, long delta) {
+        ensureOpen();
+        long value = Long.parseLong(values.merge(key, Long.toString(delta), (current, ignored) -> Long.toString(Long.parseLong(current) + delta)));
+        dirty.add(key);
+        return value;
+    }
+
+    /**
+     * Gets a view of the keys sharing a namespace.
+     * @param namespace The namespace of the keys.
+     * @return The {@link Scope} of the namespace.
+     */
+    public Scope scope(String namespace) {
+        return new Scope(this, namespace);
+    }
+
+    /**
+     * Gets the keys of the store.
+     * @return An unmodifiable, weakly consistent view of the keys.
+     */
+    public Set<String> getKeys() {
+        return Collections.unmodifiableSet(values.keySet());
+    }
+
+    /**
+     * Gets the number of keys set.
+     * @return The number of keys.
+     */
+    public int size() {
+        return values.size();
+    }
+
+    /**
+     * Gets the number of changed keys waiting to be written to the log file.
+     * @return The number of pending writes.
+     */
+    public int getPendingWrites() {
+        return dirty.size();
+    }
+
+    /**
+     * Gets the error of the last failed flush. The keys of a failed flush are written again with the next one.
+     * @return The last flush error, or {@code null} if no flush failed.
+     */
+    public Exception getLastError() {
+        return lastError;
+    }
+
+    /**
+     * Writes the changed keys to the log file now, instead of waiting for the next periodic flush.
+     * @return A {@link CompletableFuture} that will be completed when the keys are written and synced to the disk, or completed exceptionally if they could not be written.
+     */
+    public CompletableFuture<Void> flush() {
+        return submit(this::writeDirty);
+    }
+
+    /**
+     * Rewrites the log file with one record per key set, dropping the outdated records. This happens on its own once most records of the log are outdated.
+     * @return A {@link CompletableFuture} that will be completed when the log is rewritten, or completed exceptionally if it could not be rewritten.
+     */
+    public CompletableFuture<Void> compact() {
+        return submit(() -> {
+            writeDirty();
+            rewrite();
+        });
+    }
+
+    /**
+     * Closes the store, writing the changed keys to the log file first. Calling this method again has no effect.
+     */
+    @Override
+    public void close() {
+        close(Duration.ofNanos(Long.MAX_VALUE));
+    }
+
+    /**
+     * Closes the store, writing the changed keys to the log file first, and gives up on the write if it takes longer than the timeout. Calling this method again has no effect.
+     * @param timeout The maximum time to wait for the changed keys to be written.
+     * @return Whether the changed keys were written in time, or {@code true} if the store was already closed.
+     */
+    public boolean close(Duration timeout) {
+        if (!closed.compareAndSet(false, true)) {
+            return true;
+        }
+        flusher.execute(this::flushQuietly);
+        flusher.shutdown();
+        boolean written = false;
+        try {
+            written = flusher.awaitTermination(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!written) {
+            // Interrupting the write closes the channel, so the log ends at a torn record at worst, which is cut off on the next replay.
+            flusher.shutdownNow();
+            logger.log(System.Logger.Level.WARNING, () -> "State store " + file + " closed before its changed keys were written");
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.log(System.Logger.Level.WARNING, () -> "Failed to close state store " + file + ": " + e.getMessage(), e);
+        }
+        return written;
+    }
+
+    /**
+     * An I/O task run on the flusher thread.
+     */
+    private interface IoTask {
+
+        void run() throws IOException;
+    }
+
+    /**
+     * Private utility method to run an I/O task on the flusher thread.
+     */
+    private CompletableFuture<Void> submit(IoTask task) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        try {
+            flusher.execute(() -> {
+                try {
+                    task.run();
+                    future.complete(null);
+                } catch (IOException e) {
+                    lastError = e;
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(new IllegalStateException("State store closed."));
+        }
+        return future;
+    }
+
+    /**
+     * Private utility method to flush the changed keys from the periodic task, which would be cancelled by an exception.
+     */
+    private void flushQuietly() {
+        try {
+            writeDirty();
+        } catch (IOException e) {
+            lastError = e;
+            logger.log(System.Logger.Level.WARNING, () -> "Failed to flush state store " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Private utility method to append the latest values of the changed keys to the log in one write, and compact the log once most of its records are outdated. It only runs on the flusher thread.
+     * A key is taken out of the changed keys before its value is read, so a write racing with the flush marks it changed again and is written by the next flush.
+     */
+    private void writeDirty() throws IOException {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        List<String> written = new ArrayList<>();
+        for (Iterator<String> iterator = dirty.iterator(); iterator.hasNext(); ) {
+            String key = iterator.next();
+            iterator.remove();
+            written.add(key);
+            writeRecord(out, key, values.get(key));
+        }
+        long end = channel.size();
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, end + buffer.position());
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            // A partly written batch is cut off so later batches are not appended after a torn record.
+            try {
+                channel.truncate(end);
+            } catch (IOException truncateError) {
+                e.addSuppressed(truncateError);
+            }
+            dirty.addAll(written);
+            throw e;
+        }
+        logRecords += written.size();
+        if (logRecords >= COMPACTION_MIN_RECORDS && logRecords > 2L * values.size()) {
+            rewrite();
+        }
+    }
+
+    /**
+     * Private utility method to write the current values to a new log file and replace the log with it. It only runs on the flusher thread, after the changed keys were written, and keys changed meanwhile stay marked for the next flush.
+     */
+    private void rewrite() throws IOException {
+        Path compacted = file.resolveSibling(file.getFileName() + ".compact");
+        long records = 0;
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            DataOutputStream stream = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(out), 64 * 1024));
+            for (Map.Entry<String, String> entry : values.entrySet()) {
+                writeRecord(stream, entry.getKey(), entry.getValue());
+                records++;
+            }
+            stream.flush();
+            out.force(false);
+        }
+        channel.close();
+        try {
+            Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logRecords = records;
+        } finally {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+    }
+
+    /**
+     * Private utility method to write the record of a key: its length and checksum, then the operation, the key and the value.
+     */
+    private static void writeRecord(DataOutputStream out, String key, String value) throws IOException {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        byte[] valueBytes = value != null ? value.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        ByteBuffer body = ByteBuffer.allocate(1 + 4 + keyBytes.length + valueBytes.length);
+        body.put(value != null ? PUT : REMOVE).putInt(keyBytes.length).put(keyBytes).put(valueBytes);
+        CRC32 crc = new CRC32();
+        crc.update(body.array());
+        out.writeInt(body.capacity());
+        out.writeInt((int) crc.getValue());
+        out.write(body.array());
+    }
+
+    /**
+     * Private utility method to rebuild the values from the log, and cut the log after its last complete record.
+     * @return The number of records in the log.
+     */
+    private static long replay(FileChannel channel, Map<String, String> values) throws IOException {
+        channel.position(0);
+        // The stream is not closed, as that would close the channel.
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 64 * 1024));
+        long size = channel.size();
+        long valid = 0;
+        long records = 0;
+        CRC32 crc = new CRC32();
+        while (valid < size) {
+            byte[] body;
+            try {
+                int length = in.readInt();
+                int checksum = in.readInt();
+                if (length < 5 || length > MAX_RECORD_BYTES || length > size - valid - 8) {
+                    break;
+                }
+                body = new byte[length];
+                in.readFully(body);
+                crc.reset();
+                crc.update(body);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+            } catch (EOFException e) {
+                break;
+            }
+            ByteBuffer record = ByteBuffer.wrap(body);
+            byte operation = record.get();
+            int keyLength = record.getInt();
+            if (keyLength < 0 || keyLength > record.remaining() || (operation != PUT && operation != REMOVE)) {
+                break;
+            }
+            String key = new String(body, 5, keyLength, StandardCharsets.UTF_8);
+            if (operation == PUT) {
+                values.put(key, new String(body, 5 + keyLength, body.length - 5 - keyLength, StandardCharsets.UTF_8));
+            } else {
+                values.remove(key);
+            }
+            valid += 8 + body.length;
+            records++;
+        }
+        if (valid < size) {
+            channel.truncate(valid);
+        }
+        return records;
+    }
+
+    /**
+     * Private utility method to reject writes after the store is closed, as they would never be written to the log file.
+     */
+    private void ensureOpen() {
+        if (closed.get()) {
+            throw new IllegalStateException("State store closed.");
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package io.github.unknowncoder56.javaslc;
+
+import java.util.Arrays;
+
+/**
+ * The tokens of a command message. The content is scanned once, recording only the start and end index of every token, and a token is turned into a {@link String} the first time it is read. Token 0 is the command name, the following tokens are the arguments.
+ * Tokens are separated by any number of whitespace characters. A token starting with {@code "} or {@code '} is quoted up to the matching quote to include whitespace, while quotes inside a word (like the apostrophe of {@code I'm}) are ordinary characters, and {@code \} escapes the next character (inside or outside quotes).
+ */
+final class TokenizedCommand {
+
+    private static final int QUOTED = 1;
+    private static final int ESCAPED = 2;
+
+    private final String content;
+    private int[] starts = new int[8];
+    private int[] ends = new int[8];
+    private byte[] flags = new byte[8];
+    private int count;
+    private String[] tokens;
+
+    private TokenizedCommand(String content) {
+        this.content = content;
+    }
+
+    /**
+     * Tokenizes a command message.
+     * @param content The message content.
+     * @param start The index where the command name starts, i.e. the length of the matched prefix.
+     * @return The tokens of the command.
+     */
+    static TokenizedCommand tokenize(String content, int start) {
+        TokenizedCommand command = new TokenizedCommand(content);
+        int length = content.length();
+        int i = start;
+        // The command name directly follows the prefix, even if it is empty.
+        boolean first = true;
+        while (true) {
+            if (!first) {
+                while (i < length && Character.isWhitespace(content.charAt(i))) {
+                    i++;
+                }
+                if (i >= length) {
+                    break;
+                }
+            }
+            first = false;
+            int tokenStart = i;
+            byte tokenFlags = 0;
+            char quote = 0;
+            while (i < length) {
+                char c = content.charAt(i);
+                if (c == '\\' && i + 1 < length) {
+                    tokenFlags |= ESCAPED;
+                    i += 2;
+                } else if (quote != 0) {
+                    if (c == quote) {
+                        quote = 0;
+                    }
+                    i++;
+                } else if (i == tokenStart && (c == '"' || c == '\'')) {
+                    // Only a quote opening the token starts a quoted section, so apostrophes inside words are ordinary characters.
+                    tokenFlags |= QUOTED;
+                    quote = c;
+                    i++;
+                } else if (Character.isWhitespace(c)) {
+                    break;
+                } else {
+                    i++;
+                }
+            }
+            command.add(tokenStart, i, tokenFlags);
+        }
+        return command;
+    }
+
+    /**
+     * Private utility method to record a token, growing the index arrays if needed.
+     */
+    private void add(int start, int end, byte tokenFlags) {
+        if (count == starts.length) {
+            starts = Arrays.copyOf(starts, count * 2);
+            ends = Arrays.copyOf(ends, count * 2);
+            flags = Arrays.copyOf(flags, count * 2);
+        }
+        starts[count] = start;
+        ends[count] = end;
+        flags[count] = tokenFlags;
+        count++;
+    }
+
+    /**
+     * Gets the number of tokens, including the command name.
+     * @return The number of tokens.
+     */
+    int size() {
+        return count;
+    }
+
+    /**
+     * Gets a token, with quotes removed and escapes resolved.
+     * @param index The index of the token, 0 being the command name.
+     * @return The token.
+     * @throws IndexOutOfBoundsException If there is no token at the index.
+     */
+    String get(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Token index " + index + " out of bounds for length " + count);
+        }
+        if (tokens == null) {
+            tokens = new String[count];
+        }
+        String token = tokens[index];
+        if (token == null) {
+            token = flags[index] == 0 ? content.substring(starts[index], ends[index]) : unquote(starts[index], ends[index], flags[index]);
+            tokens[index] = token;
+        }
+        return token;
+    }
+
+    /**
+     * Gets the tokens from an index to the end as an array.
+     * @param from The index of the first token to include.
+     * @return A new array of the tokens.
+     */
+    String[] toArray(int from) {
+        String[] array = new String[Math.max(0, count - from)];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = get(from + i);
+        }
+        return array;
+    }
+
+    /**
+     * Gets the raw text from the start of a token to the end of the content, without resolving quotes or escapes.
+     * @param from The index of the first token to include.
+     * @return The raw remaining text, or an empty string if there is no token at the index.
+     */
+    String rawFrom(int from) {
+        return from < count ? content.substring(starts[from]) : "";
+    }
+
+    /**
+     * Private utility method to remove the quotes and resolve the escapes of a token.
+     */
+    private String unquote(int start, int end, byte tokenFlags) {
+        StringBuilder builder = new StringBuilder(end - start);
+        char quote = 0;
+        int i = start;
+        if ((tokenFlags & QUOTED) != 0) {
+            quote = content.charAt(i++);
+        }
+        for (; i < end; i++) {
+            char c = content.charAt(i);
+            if (c == '\\' && i + 1 < end) {
+                builder.append(content.charAt(++i));
+            } else if (quote != 0 && c == quote) {
+                // The closing quote ends the quoted section, later quotes in the token are ordinary characters.
+                quote = 0;
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -2,14 +2,11 @@ package io.github.unknowncoder56.javaslc;
 
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
-import org.apache.hc.client5.http.classic.methods.HttpGet;
-import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
-import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
 
-import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
 
 /**
  * This class describes a user or bot.
@@ -26,6 +23,16 @@ public class User {
      */
     protected ErrorListener errorListener;
 
+    /**
+     * The user profile cache used for API calls, shared with the {@link Bot} that created this instance.
+     */
+    final UserCache userCache;
+
+    /**
+     * The logger of the instance, shared with the {@link Bot} that created this instance.
+     */
+    final BotLogger logger;
+
     /**
      * Constructor to build a user.
      * @param userId The user's user ID.
@@ -33,8 +40,25 @@ public class User {
      * @see ErrorListener
      */
     public User(String userId, ErrorListener errorListener) {
+        this(userId, errorListener, UserCache.getDefault(), BotLogger.getDefault());
+    }
+
+    /**
+     * Closes the shared HTTP client used by the {@link User} instances built with {@link User#User(String, ErrorListener)}, stopping its I/O threads. Call it once these instances are no longer used, for example when the application exits. Instances built before this call can no longer fetch their details, instances built after it open a new client.
+     * Users created by a {@link Bot} use the client of the bot instead, which is closed by {@link Bot#shutdown(java.time.Duration)}.
+     */
+    public static void closeDefaultClient() {
+        UserCache.closeDefault();
+    }
+
+    /**
+     * Constructor to build a user sharing the user profile cache and logger of a {@link Bot}. This constructor has default-level access and is only used inside the library.
+     */
+    User(String userId, ErrorListener errorListener, UserCache userCache, BotLogger logger) {
         this.userId = userId;
         this.errorListener = errorListener;
+        this.userCache = userCache;
+        this.logger = logger;
     }
 
     /**
@@ -66,17 +90,7 @@ public class User {
      * @return A {@link CompletableFuture} containing the {@link LocalDateTime}, that will be completed when the data is received from the API.
      */
     public CompletableFuture<LocalDateTime> getAccountCreationDate() {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                return LocalDateTime.parse(getUserDetailsJsonObject().get("creation_date").getAsString());
-            } catch (IOException e) {
-                if (errorListener != null) {
-                    errorListener.onError(e, "getAccountCreationDate");
-                }
-                System.out.println("Failed to fetch account creation date: " + e.getMessage());
-                return null;
-            }
-        });
+        return getUserDetail(userDetails -> LocalDateTime.parse(userDetails.get("creation_date").getAsString()), "getAccountCreationDate", "Failed to fetch account creation date: ");
     }
 
     /**
@@ -84,17 +98,7 @@ public class User {
      * @return A {@link CompletableFuture} containing the {@link JsonObject}, that will be completed when the data is received from the API.
      */
     public CompletableFuture<JsonObject> getLabelJsonObject() {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                return getUserDetailsJsonObject().get("label").getAsJsonObject();
-            } catch (IOException e) {
-                if (errorListener != null) {
-                    errorListener.onError(e, "getLabelJsonObject");
-                }
-                System.out.println("Failed to fetch label JSON object: " + e.getMessage());
-                return null;
-            }
-        });
+        return getUserDetail(userDetails -> userDetails.get("label").getAsJsonObject().deepCopy(), "getLabelJsonObject", "Failed to fetch label JSON object: ");
     }
 
     /**
@@ -102,17 +106,7 @@ public class User {
      * @return A {@link CompletableFuture} containing the nickname, that will be completed when the data is received from the API.
      */
     public CompletableFuture<String> getNickname() {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                return getUserDetailsJsonObject().get("nickname").getAsString();
-            } catch (IOException e) {
-                if (errorListener != null) {
-                    errorListener.onError(e, "getNickname");
-                }
-                System.out.println("Failed to fetch nickname: " + e.getMessage());
-                return null;
-            }
-        });
+        return getUserDetail(userDetails -> userDetails.get("nickname").getAsString(), "getNickname", "Failed to fetch nickname: ");
     }
 
     /**
@@ -120,17 +114,7 @@ public class User {
      * @return A {@link CompletableFuture} containing the URL {@link String}, that will be completed when the data is received from the API.
      */
     public CompletableFuture<String> getProfileImageUrl() {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                return getUserDetailsJsonObject().get("profile_img").getAsString();
-            } catch (IOException e) {
-                if (errorListener != null) {
-                    errorListener.onError(e, "getProfileImageUrl");
-                }
-                System.out.println("Failed to fetch profile image URL: " + e.getMessage());
-                return null;
-            }
-        });
+        return getUserDetail(userDetails -> userDetails.get("profile_img").getAsString(), "getProfileImageUrl", "Failed to fetch profile image URL: ");
     }
 
     /**
@@ -138,17 +122,7 @@ public class User {
      * @return A {@link CompletableFuture} containing the array of IDs, that will be completed when the data is received from the API.
      */
     public CompletableFuture<long[]> getJoinedServerIds() {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                return getUserDetailsJsonObject().get("servers").getAsJsonArray().asList().stream().mapToLong(JsonElement::getAsLong).toArray();
-            } catch (IOException e) {
-                if (errorListener != null) {
-                    errorListener.onError(e, "getJoinedServerIds");
-                }
-                System.out.println("Failed to fetch joined server IDs: " + e.getMessage());
-                return null;
-            }
-        });
+        return getUserDetail(userDetails -> userDetails.get("servers").getAsJsonArray().asList().stream().mapToLong(JsonElement::getAsLong).toArray(), "getJoinedServerIds", "Failed to fetch joined server IDs: ");
     }
 
     /**
@@ -156,17 +130,7 @@ public class User {
      * @return A {@link CompletableFuture} containing the username, that will be completed when the data is received from the API.
      */
     public CompletableFuture<String> getUsername() {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                return getUserDetailsJsonObject().get("username").getAsString();
-            } catch (IOException e) {
-                if (errorListener != null) {
-                    errorListener.onError(e, "getUsername");
-                }
-                System.out.println("Failed to fetch username: " + e.getMessage());
-                return null;
-            }
-        });
+        return getUserDetail(userDetails -> userDetails.get("username").getAsString(), "getUsername", "Failed to fetch username: ");
     }
 
     /**
@@ -174,18 +138,27 @@ public class User {
      * @return A {@link CompletableFuture} containing a {@link Boolean}, that will be completed when the data is received from the API.
      */
     public CompletableFuture<Boolean> isBot() {
-        return getLabelJsonObject().thenApplyAsync(jsonObject -> jsonObject.get("name").getAsString().equals("BOT"));
+        return getUserDetail(userDetails -> userDetails.get("label").getAsJsonObject().get("name").getAsString().equals("BOT"), "isBot", "Failed to fetch label JSON object: ");
     }
 
     /**
-     * Private utility method which get the user details {@link JsonObject} of the user.
-     * @return The user details {@link JsonObject} of the user.
-     * @throws IOException If an I/O error occurs while fetching the data from the API.
+     * Private utility method which reads one value from the (cached) user details {@link JsonObject} of the user. On failure the {@link ErrorListener} is notified and the future is completed with {@code null}.
+     * @param reader The function reading the value from the user details.
+     * @param errorContext The name of the calling method, passed to the {@link ErrorListener}.
+     * @param failureMessage The message logged on failure.
+     * @return A {@link CompletableFuture} containing the value, that will be completed when the data is available.
      */
-    private JsonObject getUserDetailsJsonObject() throws IOException {
-        try (CloseableHttpClient client = HttpClientBuilder.create().build()) {
-            String responseJsonString = client.execute(new HttpGet("https://slchat.alwaysdata.net/api/user/" + userId + "/"), classicHttpResponse -> new String(classicHttpResponse.getEntity().getContent().readAllBytes()));
-            return JsonParser.parseString(responseJsonString).getAsJsonObject();
-        }
+    private <T> CompletableFuture<T> getUserDetail(Function<JsonObject, T> reader, String errorContext, String failureMessage) {
+        return userCache.get(userId).handle((userDetails, throwable) -> {
+            if (throwable == null) {
+                return reader.apply(userDetails);
+            }
+            Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+            if (errorListener != null) {
+                errorListener.onError(cause instanceof Exception ? (Exception) cause : new Exception(cause), errorContext);
+            }
+            logger.log(System.Logger.Level.WARNING, () -> failureMessage + cause.getMessage(), cause);
+            return null;
+        });
     }
-}
+}
\ No newline at end of file
@@ -0,0 +1,278 @@
+package io.github.unknowncoder56.javaslc;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.github.unknowncoder56.javaslc.metrics.Histogram;
+import io.github.unknowncoder56.javaslc.metrics.MetricsRegistry;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A size-bounded cache of user profile documents ({@code /api/user/{id}/}) shared by a {@link Bot} and every {@link User} it creates. Entries expire after a fixed TTL, the least recently used entry is evicted when the cache is full, and concurrent fetches of the same user are coalesced into a single request.
+ * Obtain the instance of a bot with {@link Bot#getUserCache()}.
+ */
+public class UserCache {
+
+    /**
+     * The default maximum number of cached user profiles.
+     */
+    static final int DEFAULT_MAXIMUM_SIZE = 1000;
+
+    /**
+     * The default time a cached user profile stays valid.
+     */
+    static final Duration DEFAULT_TTL = Duration.ofSeconds(60);
+
+    private static UserCache defaultCache;
+
+    private final HttpTransport transport;
+    private final ApiUrls urls;
+    private final int maximumSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<String, CachedProfile> entries;
+    private final Map<String, Fetch> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final Histogram fetchLatency;
+
+    /**
+     * A cached profile document and the time it expires at.
+     */
+    private static final class CachedProfile {
+
+        private final JsonObject userDetails;
+        private final long expiresAt;
+
+        private CachedProfile(JsonObject userDetails, long expiresAt) {
+            this.userDetails = userDetails;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * A running fetch of one user, shared by the callers which asked for the user while it runs.
+     */
+    private static final class Fetch {
+
+        private final CompletableFuture<JsonObject> future = new CompletableFuture<>();
+        // Guarded by the entries lock. Set when the user is invalidated while the fetch runs, so its result, which may predate the change, is not cached.
+        private boolean stale;
+    }
+
+    /**
+     * Constructor to build a cache. This constructor has default-level access and is only used inside the library.
+     * @param transport The HTTP transport used to fetch profiles.
+     * @param urls The URLs of the API.
+     * @param maximumSize The maximum number of cached profiles. A value of 0 disables caching, but concurrent fetches are still coalesced.
+     * @param ttl The time a cached profile stays valid.
+     * @param metrics The metrics recording the hit rate of the cache and the latency of its fetches.
+     */
+    UserCache(HttpTransport transport, ApiUrls urls, int maximumSize, Duration ttl, MetricsRegistry metrics) {
+        this.transport = transport;
+        this.urls = urls;
+        this.maximumSize = maximumSize;
+        this.ttlNanos = ttl.toNanos();
+        this.fetchLatency = metrics.histogram("javaslc.http.latency", "endpoint", "user");
+        metrics.gauge("javaslc.user_cache.hits", hits::sum);
+        metrics.gauge("javaslc.user_cache.misses", misses::sum);
+        metrics.gauge("javaslc.user_cache.evictions", evictions::sum);
+        metrics.gauge("javaslc.user_cache.size", this::size);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedProfile> eldest) {
+                if (size() > UserCache.this.maximumSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Gets the process-wide pass-through cache used by {@link User} instances which were not created by a {@link Bot}. It does not store profiles, it only coalesces concurrent fetches.
+     * @return The process-wide default cache.
+     */
+    static synchronized UserCache getDefault() {
+        if (defaultCache == null) {
+            defaultCache = new UserCache(HttpTransport.getDefault(), ApiUrls.DEFAULT, 0, Duration.ZERO, new MetricsRegistry());
+        }
+        return defaultCache;
+    }
+
+    /**
+     * Closes the process-wide pass-through cache and its transport. The next call to {@link UserCache#getDefault()} creates new ones.
+     */
+    static synchronized void closeDefault() {
+        defaultCache = null;
+        HttpTransport.closeDefault();
+    }
+
+    /**
+     * Gets the user details {@link JsonObject} of a user, from the cache if present and not expired, otherwise from the API.
+     * The returned object is shared, callers must not modify it.
+     * @param userId The user ID of the user.
+     * @return A {@link CompletableFuture} containing the user details, that will be completed when the data is available.
+     */
+    CompletableFuture<JsonObject> get(String userId) {
+        if (maximumSize > 0) {
+            synchronized (entries) {
+                CachedProfile entry = entries.get(userId);
+                if (entry != null) {
+                    if (entry.expiresAt - System.nanoTime() > 0) {
+                        hits.increment();
+                        return CompletableFuture.completedFuture(entry.userDetails);
+                    }
+                    entries.remove(userId);
+                }
+            }
+        }
+        misses.increment();
+        return fetch(userId);
+    }
+
+    /**
+     * Fetches a user profile from the API, sharing an already running fetch of the same user if there is one.
+     */
+    private CompletableFuture<JsonObject> fetch(String userId) {
+        Fetch existing = inFlight.get(userId);
+        if (existing != null) {
+            return existing.future;
+        }
+        Fetch fetch = new Fetch();
+        existing = inFlight.putIfAbsent(userId, fetch);
+        if (existing != null) {
+            return existing.future;
+        }
+        CompletableFuture<JsonObject> future = fetch.future;
+        long start = System.nanoTime();
+        transport.getAsync(urls.user(userId)).thenApply(body -> {
+            fetchLatency.recordSince(start);
+            return JsonParser.parseString(body).getAsJsonObject();
+        }).whenComplete((userDetails, throwable) -> {
+            inFlight.remove(userId, fetch);
+            if (throwable != null) {
+                future.completeExceptionally(throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable);
+                return;
+            }
+            if (maximumSize > 0) {
+                synchronized (entries) {
+                    // Do not store a result that was fetched before an invalidation of the user.
+                    if (!fetch.stale) {
+                        entries.put(userId, new CachedProfile(userDetails, System.nanoTime() + ttlNanos));
+                    }
+                }
+            }
+            future.complete(userDetails);
+        });
+        return future;
+    }
+
+    /**
+     * Removes a user from the cache, so the next access fetches it again from the API.
+     * @param userId The user ID of the user to invalidate.
+     */
+    public void invalidate(String userId) {
+        synchronized (entries) {
+            detach(userId);
+            entries.remove(userId);
+        }
+    }
+
+    /**
+     * Removes several users from the cache at once, taking the cache lock only once.
+     * @param userIds The user IDs of the users to invalidate.
+     */
+    public void invalidateAll(Collection<String> userIds) {
+        synchronized (entries) {
+            for (String userId : userIds) {
+                detach(userId);
+            }
+            entries.keySet().removeAll(userIds);
+        }
+    }
+
+    /**
+     * Removes all users from the cache.
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            for (String userId : inFlight.keySet()) {
+                detach(userId);
+            }
+            entries.clear();
+        }
+    }
+
+    /**
+     * Private utility method to detach the running fetch of a user, if any, so its result is not cached and the next access starts a new fetch. It must be called holding the entries lock.
+     */
+    private void detach(String userId) {
+        Fetch fetch = inFlight.remove(userId);
+        if (fetch != null) {
+            fetch.stale = true;
+        }
+    }
+
+    /**
+     * Invalidates a user and immediately fetches it again from the API. A fetch of the user which started before this call is not reused, so the result is never older than the call.
+     * @param userId The user ID of the user to refresh.
+     * @return A {@link CompletableFuture} containing the fresh user details, that will be completed when the data is received from the API.
+     */
+    public CompletableFuture<JsonObject> refresh(String userId) {
+        invalidate(userId);
+        return fetch(userId).thenApply(JsonObject::deepCopy);
+    }
+
+    /**
+     * Gets the number of cached user profiles, including expired ones which were not accessed since they expired.
+     * @return The number of cached user profiles.
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Gets the number of lookups served from the cache.
+     * @return The number of cache hits.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of lookups which had to go to the API.
+     * @return The number of cache misses.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the share of lookups served from the cache.
+     * @return The hit rate, between 0 and 1, or 0 if there was no lookup yet.
+     */
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * Gets the number of profiles evicted because the cache was full.
+     * @return The number of evictions.
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+}
@@ -0,0 +1,42 @@
+package io.github.unknowncoder56.javaslc.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A monotonically increasing count. It is backed by a {@link LongAdder}, so concurrent increments from many threads are striped instead of contending on one value, and incrementing does not allocate.
+ * @see MetricsRegistry#counter(String)
+ */
+public class Counter {
+
+    private final LongAdder value = new LongAdder();
+
+    /**
+     * The constructor of the {@link Counter} class. This constructor has default-level access, counters are created by {@link MetricsRegistry}.
+     */
+    Counter() {
+
+    }
+
+    /**
+     * Adds one to the count.
+     */
+    public void increment() {
+        value.increment();
+    }
+
+    /**
+     * Adds to the count.
+     * @param amount The amount to add.
+     */
+    public void add(long amount) {
+        value.add(amount);
+    }
+
+    /**
+     * Gets the count.
+     * @return The current count.
+     */
+    public long get() {
+        return value.sum();
+    }
+}
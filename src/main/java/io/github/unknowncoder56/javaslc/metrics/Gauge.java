@@ -0,0 +1,14 @@
+package io.github.unknowncoder56.javaslc.metrics;
+
+/**
+ * An interface to implement a value which is read when the metrics are exported, for example a queue depth.
+ * @see MetricsRegistry#gauge(String, Gauge)
+ */
+public interface Gauge {
+
+    /**
+     * Method to implement for reading the current value.
+     * @return The current value.
+     */
+    long getValue();
+}
@@ -0,0 +1,89 @@
+package io.github.unknowncoder56.javaslc.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free distribution of non-negative values, such as latencies in nanoseconds. Values are counted in log-linear buckets: each power of two is split into 8 buckets, so percentiles are exact for values below 8 and within 12.5% above, over the whole range of {@code long}.
+ * Recording a value is a few atomic increments and never allocates.
+ * @see MetricsRegistry#histogram(String)
+ */
+public class Histogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) << SUB_BUCKET_BITS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * The constructor of the {@link Histogram} class. This constructor has default-level access, histograms are created by {@link MetricsRegistry}.
+     */
+    Histogram() {
+
+    }
+
+    /**
+     * Records a value. Negative values are recorded as 0.
+     * @param value The value to record.
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        buckets.incrementAndGet(bucketIndex(value));
+        sum.add(value);
+        long currentMax = max.get();
+        while (value > currentMax && !max.compareAndSet(currentMax, value)) {
+            currentMax = max.get();
+        }
+    }
+
+    /**
+     * Records the time elapsed since a start time.
+     * @param startNanos The start time, from {@link System#nanoTime()}.
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Takes a snapshot of the distribution. The buckets are copied one by one while values may still be recorded, so the snapshot is consistent with itself but may miss values recorded meanwhile.
+     * @return A {@link HistogramSnapshot} of the distribution.
+     */
+    public HistogramSnapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+        }
+        return new HistogramSnapshot(counts, sum.sum(), max.get());
+    }
+
+    /**
+     * Gets the bucket of a value. This method has default-level access and is only used by the {@link HistogramSnapshot} class and this class.
+     */
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return ((shift + 1) << SUB_BUCKET_BITS) + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    /**
+     * Gets the largest value counted in a bucket. This method has default-level access and is only used by the {@link HistogramSnapshot} class.
+     */
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index >> SUB_BUCKET_BITS) - 1;
+        long subBucket = SUB_BUCKETS + (index & (SUB_BUCKETS - 1));
+        long upper = ((subBucket + 1) << shift) - 1;
+        // The last buckets overflow for values close to Long.MAX_VALUE.
+        return upper < 0 ? Long.MAX_VALUE : upper;
+    }
+}
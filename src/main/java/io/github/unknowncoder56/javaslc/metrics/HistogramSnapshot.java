@@ -0,0 +1,83 @@
+package io.github.unknowncoder56.javaslc.metrics;
+
+/**
+ * An immutable copy of a {@link Histogram}, to read its count, mean, maximum and percentiles.
+ */
+public class HistogramSnapshot {
+
+    private final long[] counts;
+    private final long count;
+    private final long sum;
+    private final long max;
+
+    /**
+     * The constructor of the {@link HistogramSnapshot} class. This constructor has default-level access and is only used by the {@link Histogram} class.
+     */
+    HistogramSnapshot(long[] counts, long sum, long max) {
+        this.counts = counts;
+        long total = 0;
+        for (long bucketCount : counts) {
+            total += bucketCount;
+        }
+        this.count = total;
+        this.sum = sum;
+        this.max = max;
+    }
+
+    /**
+     * Gets the number of recorded values.
+     * @return The number of recorded values.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the sum of the recorded values.
+     * @return The sum of the recorded values.
+     */
+    public long getSum() {
+        return sum;
+    }
+
+    /**
+     * Gets the largest recorded value.
+     * @return The largest recorded value, or 0 if no value was recorded.
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Gets the mean of the recorded values.
+     * @return The mean, or 0 if no value was recorded.
+     */
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * Gets the value below which a percentage of the recorded values fall, rounded up to the bucket of that value.
+     * @param percentile The percentage, between 0 and 100, for example 99 for the 99th percentile.
+     * @return The value at the percentile, or 0 if no value was recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(Histogram.bucketUpperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return "count=" + count + " mean=" + Math.round(getMean()) + " p50=" + getValueAtPercentile(50) + " p99=" + getValueAtPercentile(99) + " max=" + max;
+    }
+}
@@ -0,0 +1,14 @@
+package io.github.unknowncoder56.javaslc.metrics;
+
+/**
+ * An interface to implement the method for publishing metrics, for example to a log, a file or a monitoring system. Exporters are called periodically with a snapshot of all metrics of a bot.
+ * @see io.github.unknowncoder56.javaslc.BotBuilder#addMetricsExporter(MetricsExporter, java.time.Duration)
+ */
+public interface MetricsExporter {
+
+    /**
+     * Method to implement for publishing a snapshot of the metrics. It is called on the scheduler thread of the bot, so it should not block for long.
+     * @param snapshot The {@link MetricsSnapshot} to publish.
+     */
+    void export(MetricsSnapshot snapshot);
+}
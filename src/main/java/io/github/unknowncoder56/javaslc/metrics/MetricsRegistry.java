@@ -0,0 +1,111 @@
+package io.github.unknowncoder56.javaslc.metrics;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The metrics of a bot. Metrics are created on first use and identified by a name and an optional tag, for example the counter {@code javaslc.messages.received} tagged {@code server=42}.
+ * Looking a metric up by name builds its key, so code on a hot path looks its metrics up once and keeps the returned {@link Counter} or {@link Histogram}, which are then updated without allocating.
+ * Obtain the registry of a bot with {@link io.github.unknowncoder56.javaslc.Bot#getMetrics()}.
+ */
+public class MetricsRegistry {
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private final Map<String, Gauge> gauges = new ConcurrentHashMap<>();
+
+    /**
+     * Gets or creates a counter.
+     * @param name The name of the counter.
+     * @return The {@link Counter} with the name.
+     */
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, key -> new Counter());
+    }
+
+    /**
+     * Gets or creates a tagged counter.
+     * @param name The name of the counter.
+     * @param tagKey The key of the tag, for example {@code server}.
+     * @param tagValue The value of the tag, for example a server ID.
+     * @return The {@link Counter} with the name and tag.
+     */
+    public Counter counter(String name, String tagKey, String tagValue) {
+        return counter(key(name, tagKey, tagValue));
+    }
+
+    /**
+     * Gets or creates a histogram.
+     * @param name The name of the histogram.
+     * @return The {@link Histogram} with the name.
+     */
+    public Histogram histogram(String name) {
+        return histograms.computeIfAbsent(name, key -> new Histogram());
+    }
+
+    /**
+     * Gets or creates a tagged histogram.
+     * @param name The name of the histogram.
+     * @param tagKey The key of the tag, for example {@code command}.
+     * @param tagValue The value of the tag, for example a command name.
+     * @return The {@link Histogram} with the name and tag.
+     */
+    public Histogram histogram(String name, String tagKey, String tagValue) {
+        return histogram(key(name, tagKey, tagValue));
+    }
+
+    /**
+     * Registers a gauge, replacing any gauge with the same name.
+     * @param name The name of the gauge.
+     * @param gauge The {@link Gauge} reading the value.
+     */
+    public void gauge(String name, Gauge gauge) {
+        gauges.put(name, gauge);
+    }
+
+    /**
+     * Registers a tagged gauge, replacing any gauge with the same name and tag.
+     * @param name The name of the gauge.
+     * @param tagKey The key of the tag.
+     * @param tagValue The value of the tag.
+     * @param gauge The {@link Gauge} reading the value.
+     */
+    public void gauge(String name, String tagKey, String tagValue, Gauge gauge) {
+        gauge(key(name, tagKey, tagValue), gauge);
+    }
+
+    /**
+     * Removes all metrics with a tag, for example those of a server the bot is no longer in.
+     * @param tagKey The key of the tag.
+     * @param tagValue The value of the tag.
+     */
+    public void removeTagged(String tagKey, String tagValue) {
+        String suffix = "{" + tagKey + "=\"" + tagValue + "\"}";
+        counters.keySet().removeIf(key -> key.endsWith(suffix));
+        histograms.keySet().removeIf(key -> key.endsWith(suffix));
+        gauges.keySet().removeIf(key -> key.endsWith(suffix));
+    }
+
+    /**
+     * Takes a snapshot of all metrics, reading every gauge.
+     * @return A {@link MetricsSnapshot} of all metrics.
+     */
+    public MetricsSnapshot snapshot() {
+        Map<String, Long> counterValues = new TreeMap<>();
+        counters.forEach((name, counter) -> counterValues.put(name, counter.get()));
+        Map<String, Long> gaugeValues = new TreeMap<>();
+        gauges.forEach((name, gauge) -> gaugeValues.put(name, gauge.getValue()));
+        Map<String, HistogramSnapshot> histogramSnapshots = new TreeMap<>();
+        histograms.forEach((name, histogram) -> histogramSnapshots.put(name, histogram.snapshot()));
+        return new MetricsSnapshot(Instant.now(), counterValues, gaugeValues, histogramSnapshots);
+    }
+
+    /**
+     * Private utility method to build the full name of a tagged metric.
+     */
+    private static String key(String name, String tagKey, String tagValue) {
+        return name + "{" + tagKey + "=\"" + tagValue + "\"}";
+    }
+}
@@ -0,0 +1,67 @@
+package io.github.unknowncoder56.javaslc.metrics;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * An immutable copy of all metrics of a {@link MetricsRegistry}, keyed by their full name, for example {@code javaslc.messages.received{server="42"}}.
+ */
+public class MetricsSnapshot {
+
+    private final Instant timestamp;
+    private final Map<String, Long> counters;
+    private final Map<String, Long> gauges;
+    private final Map<String, HistogramSnapshot> histograms;
+
+    /**
+     * The constructor of the {@link MetricsSnapshot} class. This constructor has default-level access and is only used by the {@link MetricsRegistry} class.
+     */
+    MetricsSnapshot(Instant timestamp, Map<String, Long> counters, Map<String, Long> gauges, Map<String, HistogramSnapshot> histograms) {
+        this.timestamp = timestamp;
+        this.counters = Collections.unmodifiableMap(counters);
+        this.gauges = Collections.unmodifiableMap(gauges);
+        this.histograms = Collections.unmodifiableMap(histograms);
+    }
+
+    /**
+     * Gets the time the snapshot was taken.
+     * @return The time of the snapshot.
+     */
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Gets the values of all counters.
+     * @return A sorted map of the counter values by full name.
+     */
+    public Map<String, Long> getCounters() {
+        return counters;
+    }
+
+    /**
+     * Gets the values of all gauges.
+     * @return A sorted map of the gauge values by full name.
+     */
+    public Map<String, Long> getGauges() {
+        return gauges;
+    }
+
+    /**
+     * Gets the snapshots of all histograms.
+     * @return A sorted map of the histogram snapshots by full name.
+     */
+    public Map<String, HistogramSnapshot> getHistograms() {
+        return histograms;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        counters.forEach((name, value) -> builder.append(name).append(' ').append(value).append('\n'));
+        gauges.forEach((name, value) -> builder.append(name).append(' ').append(value).append('\n'));
+        histograms.forEach((name, value) -> builder.append(name).append(' ').append(value).append('\n'));
+        return builder.toString();
+    }
+}
@@ -0,0 +1,79 @@
+package io.github.unknowncoder56.javaslc;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.ResourceBundle;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AsyncLoggerTest {
+
+    /**
+     * A logger which writes slowly, so records are still queued when the async logger is closed.
+     */
+    private static final class SlowLogger implements System.Logger {
+
+        private final List<String> messages = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String getName() {
+            return "slow";
+        }
+
+        @Override
+        public boolean isLoggable(Level level) {
+            return true;
+        }
+
+        @Override
+        public void log(Level level, ResourceBundle bundle, String msg, Throwable thrown) {
+            write(msg);
+        }
+
+        @Override
+        public void log(Level level, ResourceBundle bundle, String format, Object... params) {
+            write(format);
+        }
+
+        private void write(String msg) {
+            try {
+                Thread.sleep(2);
+            } catch (InterruptedException e) {
+                // A write interrupted by close() would lose the record.
+                return;
+            }
+            messages.add(msg);
+        }
+    }
+
+    @Test
+    void closeWritesQueuedRecords() {
+        SlowLogger delegate = new SlowLogger();
+        AsyncLogger logger = new AsyncLogger(delegate, 64);
+        for (int i = 0; i < 50; i++) {
+            int n = i;
+            logger.log(System.Logger.Level.INFO, () -> "message " + n);
+        }
+
+        logger.close();
+
+        assertEquals(50, delegate.messages.size());
+        assertEquals("message 49", delegate.messages.get(49));
+        assertEquals(0, logger.getDroppedCount());
+    }
+
+    @Test
+    void dropsRecordsAfterClose() {
+        SlowLogger delegate = new SlowLogger();
+        AsyncLogger logger = new AsyncLogger(delegate, 4);
+        logger.close();
+        logger.close();
+
+        logger.log(System.Logger.Level.INFO, () -> "late");
+
+        assertEquals(0, delegate.messages.size());
+        assertEquals(1, logger.getDroppedCount());
+    }
+}
@@ -0,0 +1,130 @@
+package io.github.unknowncoder56.javaslc;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CommandSignatureTest {
+
+    private enum Color {
+        RED, DARK_BLUE
+    }
+
+    private static final CommandSignature GIVE = CommandSignatureBuilder.newInstance()
+            .addArgument("user", ArgumentType.USER_ID)
+            .addArgument("amount", ArgumentType.INTEGER)
+            .addOptionalArgument("reason", ArgumentType.GREEDY_STRING, "no reason")
+            .addFlag("silent")
+            .addOption("times", ArgumentType.LONG, "1")
+            .build();
+
+    private static ParsedArguments parse(CommandSignature signature, String content) throws ArgumentParseException {
+        TokenizedCommand tokens = TokenizedCommand.tokenize(content, 1);
+        return signature.parse(new CommandContext(new InboundMessage("server", content, "owner", "1"), null, tokens, tokens.get(0), tokens.get(0), 1));
+    }
+
+    @Test
+    void parsesTypedArguments() throws ArgumentParseException {
+        ParsedArguments arguments = parse(GIVE, "!give @alice 25 for  \"being\" helpful");
+
+        assertEquals("alice", arguments.getString("user"));
+        assertEquals(25, arguments.getInt("amount"));
+        assertEquals("for  \"being\" helpful", arguments.getString("reason"));
+        assertFalse(arguments.hasFlag("silent"));
+        assertEquals(1L, arguments.getLong("times"));
+    }
+
+    @Test
+    void appliesDefaultsForMissingOptionalArguments() throws ArgumentParseException {
+        ParsedArguments arguments = parse(GIVE, "!give bob -3");
+
+        assertEquals(-3, arguments.getInt("amount"));
+        assertEquals("no reason", arguments.getString("reason"));
+        assertTrue(arguments.has("reason"));
+    }
+
+    @Test
+    void parsesFlagsAndOptionsAnywhere() throws ArgumentParseException {
+        ParsedArguments arguments = parse(GIVE, "!give --silent bob --times=4 7");
+
+        assertTrue(arguments.hasFlag("silent"));
+        assertEquals(4L, arguments.getLong("times"));
+        assertEquals(7, arguments.getInt("amount"));
+
+        assertEquals(9L, parse(GIVE, "!give bob 1 --times 9").getLong("times"));
+    }
+
+    @Test
+    void reportsTypedArgumentErrorsWithUsage() {
+        ArgumentParseException notInteger = assertThrows(ArgumentParseException.class, () -> parse(GIVE, "!give bob lots"));
+        assertEquals("Argument amount must be an integer.", notInteger.getMessage());
+        assertEquals("<user:user> <amount:int> [reason:text...=no reason] [--silent] [--times <long>]", notInteger.getUsage());
+
+        assertEquals("Argument times must be a long integer.", assertThrows(ArgumentParseException.class, () -> parse(GIVE, "!give bob 1 --times=x")).getMessage());
+        assertEquals("Argument user must be a user ID.", assertThrows(ArgumentParseException.class, () -> parse(GIVE, "!give @ 1")).getMessage());
+    }
+
+    @Test
+    void reportsMissingAndExtraArguments() {
+        assertEquals("Missing argument amount.", assertThrows(ArgumentParseException.class, () -> parse(GIVE, "!give bob")).getMessage());
+        assertEquals("Missing argument user.", assertThrows(ArgumentParseException.class, () -> parse(GIVE, "!give")).getMessage());
+        assertEquals("Missing value for option --times.", assertThrows(ArgumentParseException.class, () -> parse(GIVE, "!give bob 1 --times")).getMessage());
+        assertEquals("Flag --silent does not take a value.", assertThrows(ArgumentParseException.class, () -> parse(GIVE, "!give bob 1 --silent=yes")).getMessage());
+
+        CommandSignature single = CommandSignatureBuilder.newInstance().addArgument("name", ArgumentType.STRING).build();
+        assertEquals("Too many arguments.", assertThrows(ArgumentParseException.class, () -> parse(single, "!greet a b")).getMessage());
+    }
+
+    @Test
+    void quotedArgumentIsOneValue() throws ArgumentParseException {
+        CommandSignature signature = CommandSignatureBuilder.newInstance().addArgument("name", ArgumentType.STRING).addArgument("count", ArgumentType.INTEGER).build();
+
+        ParsedArguments arguments = parse(signature, "!greet \"Ada Lovelace\" 2");
+
+        assertEquals("Ada Lovelace", arguments.getString("name"));
+        assertEquals(2, arguments.getInt("count"));
+    }
+
+    @Test
+    void matchesEnumConstantsIgnoringCase() throws ArgumentParseException {
+        CommandSignature signature = CommandSignatureBuilder.newInstance().addOptionalEnumArgument("color", Color.class, "red").build();
+
+        assertEquals(Color.DARK_BLUE, parse(signature, "!paint Dark_Blue").getEnum("color", Color.class));
+        assertEquals(Color.RED, parse(signature, "!paint").getEnum("color", Color.class));
+        ArgumentParseException e = assertThrows(ArgumentParseException.class, () -> parse(signature, "!paint green"));
+        assertEquals("Argument color must be one of red, dark_blue.", e.getMessage());
+        assertEquals("[color:red|dark_blue=red]", e.getUsage());
+    }
+
+    @Test
+    void matchesOptionNamesWithCase() {
+        // Only exact option names are options, so --Silent is a positional argument.
+        assertEquals("Argument amount must be an integer.", assertThrows(ArgumentParseException.class, () -> parse(GIVE, "!give bob --Silent")).getMessage());
+    }
+
+    @Test
+    void leavesOptionalArgumentWithoutDefaultUnset() throws ArgumentParseException {
+        CommandSignature signature = CommandSignatureBuilder.newInstance().addOptionalArgument("page", ArgumentType.INTEGER, null).build();
+
+        ParsedArguments arguments = parse(signature, "!list");
+
+        assertFalse(arguments.has("page"));
+        assertNull(arguments.getString("page"));
+        assertThrows(IllegalStateException.class, () -> arguments.getInt("page"));
+        assertThrows(IllegalArgumentException.class, () -> arguments.has("missing"));
+    }
+
+    @Test
+    void rejectsInvalidDeclarations() {
+        assertThrows(IllegalArgumentException.class, () -> CommandSignatureBuilder.newInstance().addOptionalArgument("a", ArgumentType.STRING, null).addArgument("b", ArgumentType.STRING).build());
+        assertThrows(IllegalArgumentException.class, () -> CommandSignatureBuilder.newInstance().addArgument("a", ArgumentType.GREEDY_STRING).addArgument("b", ArgumentType.STRING).build());
+        assertThrows(IllegalArgumentException.class, () -> CommandSignatureBuilder.newInstance().addArgument("a", ArgumentType.STRING).addFlag("a").build());
+        assertThrows(IllegalArgumentException.class, () -> CommandSignatureBuilder.newInstance().addOptionalArgument("a", ArgumentType.INTEGER, "ten").build());
+        assertThrows(IllegalArgumentException.class, () -> CommandSignatureBuilder.newInstance().addArgument("a", ArgumentType.ENUM).build());
+        assertThrows(IllegalArgumentException.class, () -> CommandSignatureBuilder.newInstance().addOption("a", ArgumentType.GREEDY_STRING, null).build());
+    }
+}
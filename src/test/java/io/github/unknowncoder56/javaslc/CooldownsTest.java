@@ -0,0 +1,89 @@
+package io.github.unknowncoder56.javaslc;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CooldownsTest {
+
+    private static final Duration MINUTE = Duration.ofMinutes(1);
+
+    @Test
+    void allowsPermitsPerPeriodThenThrottles() {
+        Cooldowns cooldowns = new Cooldowns().limit("daily", CooldownScope.USER, 2, MINUTE);
+
+        assertEquals(0, cooldowns.tryAcquire("daily", "server", "alice"));
+        assertEquals(0, cooldowns.tryAcquire("daily", "server", "alice"));
+        long wait = cooldowns.tryAcquire("daily", "server", "alice");
+
+        assertTrue(wait > 0 && wait <= MINUTE.toNanos() / 2, "Wait was " + wait);
+    }
+
+    @Test
+    void countsEachScopeSeparately() {
+        Cooldowns cooldowns = new Cooldowns()
+                .limit("user", CooldownScope.USER, 1, MINUTE)
+                .limit("server", CooldownScope.SERVER, 1, MINUTE)
+                .limit("pair", CooldownScope.USER_IN_SERVER, 1, MINUTE)
+                .limit("global", CooldownScope.GLOBAL, 1, MINUTE);
+
+        assertEquals(0, cooldowns.tryAcquire("user", "a", "alice"));
+        assertEquals(0, cooldowns.tryAcquire("user", "a", "bob"));
+        assertTrue(cooldowns.tryAcquire("user", "b", "alice") > 0);
+
+        assertEquals(0, cooldowns.tryAcquire("server", "a", "alice"));
+        assertEquals(0, cooldowns.tryAcquire("server", "b", "alice"));
+        assertTrue(cooldowns.tryAcquire("server", "a", "bob") > 0);
+
+        assertEquals(0, cooldowns.tryAcquire("pair", "a", "alice"));
+        assertEquals(0, cooldowns.tryAcquire("pair", "b", "alice"));
+        assertEquals(0, cooldowns.tryAcquire("pair", "a", "bob"));
+        assertTrue(cooldowns.tryAcquire("pair", "a", "alice") > 0);
+
+        assertEquals(0, cooldowns.tryAcquire("global", "a", "alice"));
+        assertTrue(cooldowns.tryAcquire("global", "b", "bob") > 0);
+    }
+
+    @Test
+    void refundsCommandLimitWhenGlobalLimitRefuses() {
+        Cooldowns cooldowns = new Cooldowns()
+                .limit("ping", CooldownScope.USER, 2, MINUTE)
+                .limitAll(CooldownScope.SERVER, 1, MINUTE);
+
+        assertEquals(0, cooldowns.tryAcquire("ping", "a", "alice"));
+        assertTrue(cooldowns.tryAcquire("ping", "a", "alice") > 0);
+
+        // The use refused by the server limit did not take the second permit of the user limit.
+        assertEquals(0, cooldowns.tryAcquire("ping", "b", "alice"));
+        assertTrue(cooldowns.tryAcquire("ping", "c", "alice") > 0);
+    }
+
+    @Test
+    void ignoresCommandsWithoutLimits() {
+        Cooldowns cooldowns = new Cooldowns().limit("ping", CooldownScope.USER, 1, MINUTE);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, cooldowns.tryAcquire("help", "server", "alice"));
+        }
+        assertEquals(0, cooldowns.size());
+    }
+
+    @Test
+    void rejectsInvalidLimits() {
+        Cooldowns cooldowns = new Cooldowns();
+
+        assertThrows(IllegalArgumentException.class, () -> cooldowns.limit("ping", CooldownScope.USER, 0, MINUTE));
+        assertThrows(IllegalArgumentException.class, () -> cooldowns.limit("ping", CooldownScope.USER, -1, MINUTE));
+        assertThrows(IllegalArgumentException.class, () -> cooldowns.limit("ping", CooldownScope.USER, 1, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> cooldowns.limitAll(CooldownScope.USER, 1, Duration.ofSeconds(-1)));
+        assertThrows(IllegalArgumentException.class, () -> cooldowns.limitAll(CooldownScope.USER, 1, null));
+        assertThrows(IllegalArgumentException.class, () -> cooldowns.limitAll(null, 1, MINUTE));
+        // A rejected limit is not added.
+        assertEquals(0, cooldowns.tryAcquire("ping", "server", "alice"));
+        assertEquals(0, cooldowns.tryAcquire("ping", "server", "alice"));
+    }
+}
@@ -0,0 +1,53 @@
+package io.github.unknowncoder56.javaslc;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DispatcherTest {
+
+    private final AtomicInteger threadsCreated = new AtomicInteger();
+    private final ThreadFactory threadFactory = runnable -> {
+        threadsCreated.incrementAndGet();
+        Thread thread = new Thread(runnable);
+        thread.setDaemon(true);
+        return thread;
+    };
+
+    private static long deadline() {
+        return System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    }
+
+    @Test
+    void startsNoThreadsUntilFirstDispatch() throws InterruptedException {
+        Dispatcher dispatcher = new Dispatcher(null, 2, 8, OverflowPolicy.DROP_OLDEST, threadFactory);
+
+        assertEquals(0, threadsCreated.get());
+        dispatcher.shutdown();
+        assertTrue(dispatcher.awaitTermination(deadline()));
+        assertEquals(0, threadsCreated.get());
+    }
+
+    @Test
+    void startsThreadsOnFirstDispatchAndDrainsOnShutdown() throws InterruptedException {
+        Dispatcher dispatcher = new Dispatcher(null, 2, 8, OverflowPolicy.DROP_OLDEST, threadFactory);
+        CountDownLatch handled = new CountDownLatch(3);
+
+        assertTrue(dispatcher.dispatch("a", handled::countDown));
+        assertTrue(dispatcher.dispatch("b", handled::countDown));
+        assertTrue(dispatcher.dispatch("a", handled::countDown));
+        dispatcher.shutdown();
+
+        assertTrue(dispatcher.awaitTermination(deadline()));
+        assertEquals(0, handled.getCount());
+        assertEquals(2, threadsCreated.get());
+        assertFalse(dispatcher.dispatch("a", () -> {}));
+    }
+}
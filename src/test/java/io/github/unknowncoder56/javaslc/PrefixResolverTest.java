@@ -0,0 +1,119 @@
+package io.github.unknowncoder56.javaslc;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrefixResolverTest {
+
+    @Test
+    void longestOverlappingPrefixWins() {
+        PrefixResolver prefixes = new PrefixResolver(Arrays.asList("!", "!!"), null);
+
+        assertEquals(2, prefixes.match("server", "!!ping"));
+        assertEquals(1, prefixes.match("server", "!ping"));
+        assertEquals(2, prefixes.match("server", "!!"));
+        assertEquals(1, prefixes.match("server", "!"));
+    }
+
+    @Test
+    void longerPrefixIsMatchedOnlyWhenComplete() {
+        PrefixResolver prefixes = new PrefixResolver(Arrays.asList("?", "bot?"), null);
+
+        assertEquals(4, prefixes.match("server", "bot?help"));
+        assertEquals(-1, prefixes.match("server", "bot help"));
+        assertEquals(-1, prefixes.match("server", "bo"));
+    }
+
+    @Test
+    void doesNotMatchMessagesWithoutPrefix() {
+        PrefixResolver prefixes = new PrefixResolver(List.of("!"), null);
+
+        assertEquals(-1, prefixes.match("server", "ping"));
+        assertEquals(-1, prefixes.match("server", ""));
+        assertEquals(-1, prefixes.match("server", " !ping"));
+    }
+
+    @Test
+    void matchesPrefixesWithCase() {
+        PrefixResolver prefixes = new PrefixResolver(List.of("bot!"), null);
+
+        assertEquals(4, prefixes.match("server", "bot!ping"));
+        assertEquals(-1, prefixes.match("server", "Bot!ping"));
+        assertEquals(-1, prefixes.match("server", "BOT!ping"));
+    }
+
+    @Test
+    void ignoresEmptyAndRepeatedPrefixes() {
+        PrefixResolver prefixes = new PrefixResolver(Arrays.asList("", "!", null, "!"), null);
+
+        assertEquals(List.of("!"), prefixes.getPrefixes());
+        assertEquals(-1, prefixes.match("server", "ping"));
+        assertTrue(prefixes.hasPrefixes());
+        assertFalse(new PrefixResolver(List.of(""), null).hasPrefixes());
+    }
+
+    @Test
+    void serverPrefixesReplaceDefaults() {
+        PrefixResolver prefixes = new PrefixResolver(List.of("!"), null);
+        prefixes.setServerPrefixes("custom", List.of("$", "$$"));
+
+        assertEquals(2, prefixes.match("custom", "$$ping"));
+        assertEquals(-1, prefixes.match("custom", "!ping"));
+        assertEquals(1, prefixes.match("other", "!ping"));
+        assertEquals(List.of("$", "$$"), prefixes.getServerPrefixes("custom"));
+        assertNull(prefixes.getServerPrefixes("other"));
+
+        assertTrue(prefixes.removeServerPrefixes("custom"));
+        assertEquals(1, prefixes.match("custom", "!ping"));
+        assertFalse(prefixes.removeServerPrefixes("custom"));
+    }
+
+    @Test
+    void emptyServerPrefixesDisableCommands() {
+        PrefixResolver prefixes = new PrefixResolver(List.of("!"), null);
+        prefixes.setServerPrefixes("quiet", Collections.emptyList());
+
+        assertEquals(-1, prefixes.match("quiet", "!ping"));
+    }
+
+    @Test
+    void updatesDefaultPrefixes() {
+        PrefixResolver prefixes = new PrefixResolver(List.of("!"), null);
+        prefixes.addPrefix("?");
+
+        assertEquals(1, prefixes.match("server", "?ping"));
+        assertTrue(prefixes.removePrefix("!"));
+        assertFalse(prefixes.removePrefix("!"));
+        assertEquals(-1, prefixes.match("server", "!ping"));
+        assertEquals(List.of("?"), prefixes.getPrefixes());
+    }
+
+    @Test
+    void mentionMustBeFollowedByWhitespace() {
+        PrefixResolver prefixes = new PrefixResolver(List.of("!"), "@bot");
+
+        assertEquals(6, prefixes.match("server", "@bot  ping"));
+        assertEquals(-1, prefixes.match("server", "@botty ping"));
+        assertEquals(-1, prefixes.match("server", "@bot"));
+        assertEquals(1, prefixes.match("server", "!ping"));
+
+        prefixes.setMention(null);
+        assertEquals(-1, prefixes.match("server", "@bot ping"));
+    }
+
+    @Test
+    void mentionAloneEnablesCommands() {
+        PrefixResolver prefixes = new PrefixResolver(Collections.emptyList(), "@bot");
+
+        assertTrue(prefixes.hasPrefixes());
+        assertEquals(5, prefixes.match("server", "@bot ping"));
+    }
+}
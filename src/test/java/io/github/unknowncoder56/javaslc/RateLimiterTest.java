@@ -0,0 +1,78 @@
+package io.github.unknowncoder56.javaslc;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RateLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void allowsBurstThenRefillsAtRate() {
+        RateLimiter rateLimiter = new RateLimiter(2, 3);
+
+        assertEquals(0, rateLimiter.tryAcquire("key", 0));
+        assertEquals(0, rateLimiter.tryAcquire("key", 0));
+        assertEquals(0, rateLimiter.tryAcquire("key", 0));
+        assertEquals(SECOND / 2, rateLimiter.tryAcquire("key", 0));
+        assertEquals(0, rateLimiter.tryAcquire("key", SECOND / 2));
+        assertEquals(SECOND / 2, rateLimiter.tryAcquire("key", SECOND / 2));
+    }
+
+    @Test
+    void keysHaveSeparateBuckets() {
+        RateLimiter rateLimiter = new RateLimiter(1, 1);
+
+        assertEquals(0, rateLimiter.tryAcquire("a", 0));
+        assertEquals(0, rateLimiter.tryAcquire("b", 0));
+        assertEquals(SECOND, rateLimiter.tryAcquire("a", 0));
+    }
+
+    @Test
+    void refundGivesBackToken() {
+        RateLimiter rateLimiter = new RateLimiter(1, 1);
+
+        assertEquals(0, rateLimiter.tryAcquire("key", 0));
+        rateLimiter.refund("key");
+
+        assertEquals(0, rateLimiter.tryAcquire("key", 0));
+    }
+
+    @Test
+    void removedBucketStartsFull() {
+        RateLimiter rateLimiter = new RateLimiter(1, 1);
+        assertEquals(0, rateLimiter.tryAcquire("key", 0));
+
+        rateLimiter.remove("key");
+
+        assertEquals(0, rateLimiter.size());
+        assertEquals(0, rateLimiter.tryAcquire("key", 0));
+    }
+
+    @Test
+    void sweepsIdleBuckets() {
+        RateLimiter rateLimiter = new RateLimiter(1, 2);
+        for (int i = 0; i < 300; i++) {
+            rateLimiter.tryAcquire("user-" + i, 0);
+        }
+
+        // Two seconds refill a burst of two, so every bucket idle since then is full and dropped.
+        rateLimiter.tryAcquire("late", 2 * SECOND);
+        for (int i = 0; i < 300; i++) {
+            rateLimiter.tryAcquire("late", 2 * SECOND);
+        }
+
+        assertEquals(1, rateLimiter.size());
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(-1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(Double.NaN, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(Double.POSITIVE_INFINITY, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(1, 0));
+    }
+}
@@ -0,0 +1,181 @@
+package io.github.unknowncoder56.javaslc;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StateStoreTest {
+
+    // Long enough that only explicit flushes and close() write the log.
+    private static final Duration FLUSH_INTERVAL = Duration.ofHours(1);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysValuesAfterCleanClose() throws IOException {
+        Path file = directory.resolve("state.log");
+        try (StateStore store = StateStore.open(file, FLUSH_INTERVAL)) {
+            store.put("prefix", "!");
+            store.put("points", "3");
+            store.increment("points", 2);
+            store.scope("server-1").put("welcome", "h\u00e9llo");
+        }
+
+        try (StateStore store = StateStore.open(file, FLUSH_INTERVAL)) {
+            assertEquals("!", store.get("prefix"));
+            assertEquals("5", store.get("points"));
+            assertEquals("h\u00e9llo", store.scope("server-1").get("welcome"));
+            assertEquals(3, store.size());
+        }
+    }
+
+    @Test
+    void replaysRemoveRecords() throws IOException {
+        Path file = directory.resolve("state.log");
+        try (StateStore store = StateStore.open(file, FLUSH_INTERVAL)) {
+            store.put("kept", "1");
+            store.put("removed", "2");
+            store.flush().join();
+            store.remove("removed");
+        }
+
+        try (StateStore store = StateStore.open(file, FLUSH_INTERVAL)) {
+            assertEquals("1", store.get("kept"));
+            assertNull(store.get("removed"));
+            assertFalse(store.contains("removed"));
+        }
+    }
+
+    @Test
+    void truncatesTornTail() throws IOException {
+        Path file = directory.resolve("state.log");
+        try (StateStore store = StateStore.open(file, FLUSH_INTERVAL)) {
+            store.put("a", "1");
+        }
+        long validSize = Files.size(file);
+        // A record cut off by a crash: a length prefix promising more bytes than the file holds.
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.allocate(6).putInt(100).putShort((short) 7).flip());
+        }
+
+        try (StateStore store = StateStore.open(file, FLUSH_INTERVAL)) {
+            assertEquals("1", store.get("a"));
+            assertEquals(1, store.size());
+        }
+        assertEquals(validSize, Files.size(file));
+    }
+
+    @Test
+    void truncatesCorruptedTail() throws IOException {
+        Path file = directory.resolve("state.log");
+        try (StateStore store = StateStore.open(file, FLUSH_INTERVAL)) {
+            store.put("a", "1");
+            store.flush().join();
+        }
+        long validSize = Files.size(file);
+        try (StateStore store = StateStore.open(file, FLUSH_INTERVAL)) {
+            store.put("b", "2");
+        }
+        // Flipping the last byte of the value breaks the checksum of the second record.
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.read(last, channel.size() - 1);
+            channel.write(ByteBuffer.wrap(new byte[] {(byte) (last.get(0) ^ 0xFF)}), channel.size() - 1);
+        }
+
+        try (StateStore store = StateStore.open(file, FLUSH_INTERVAL)) {
+            assertEquals("1", store.get("a"));
+            assertNull(store.get("b"));
+        }
+        assertEquals(validSize, Files.size(file));
+    }
+
+    @Test
+    void compactionKeepsLatestValues() throws IOException {
+        Path file = directory.resolve("state.log");
+        long uncompactedSize;
+        try (StateStore store = StateStore.open(file, FLUSH_INTERVAL)) {
+            for (int i = 0; i < 100; i++) {
+                store.put("counter", String.valueOf(i));
+                store.put("key-" + (i % 10), String.valueOf(i));
+                store.flush().join();
+            }
+            store.remove("key-0");
+            store.flush().join();
+            uncompactedSize = Files.size(file);
+
+            store.compact().join();
+
+            assertTrue(Files.size(file) < uncompactedSize);
+            assertEquals("99", store.get("counter"));
+        }
+
+        try (StateStore store = StateStore.open(file, FLUSH_INTERVAL)) {
+            assertEquals("99", store.get("counter"));
+            assertNull(store.get("key-0"));
+            for (int i = 1; i < 10; i++) {
+                assertEquals(String.valueOf(90 + i), store.get("key-" + i));
+            }
+            assertEquals(10, store.size());
+        }
+        assertFalse(Files.exists(file.resolveSibling(file.getFileName() + ".compact")));
+    }
+
+    @Test
+    void rejectsWritesAfterClose() throws IOException {
+        StateStore store = StateStore.open(directory.resolve("state.log"), FLUSH_INTERVAL);
+        store.close();
+
+        assertThrows(IllegalStateException.class, () -> store.put("a", "1"));
+        assertTrue(store.close(Duration.ZERO));
+    }
+
+    @Test
+    void concurrentClosesDoNotThrow() throws Exception {
+        Path file = directory.resolve("state.log");
+        StateStore store = StateStore.open(file, FLUSH_INTERVAL);
+        store.put("a", "1");
+        CountDownLatch ready = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    ready.await();
+                    store.close(Duration.ofSeconds(10));
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        ready.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertNull(failure.get());
+        try (StateStore reopened = StateStore.open(file, FLUSH_INTERVAL)) {
+            assertEquals("1", reopened.get("a"));
+        }
+    }
+}
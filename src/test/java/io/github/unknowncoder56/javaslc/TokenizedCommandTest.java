@@ -0,0 +1,97 @@
+package io.github.unknowncoder56.javaslc;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TokenizedCommandTest {
+
+    private static String[] tokens(String content, int start) {
+        return TokenizedCommand.tokenize(content, start).toArray(0);
+    }
+
+    @Test
+    void splitsOnAnyWhitespace() {
+        assertArrayEquals(new String[] {"ban", "user", "spam"}, tokens("!ban  user\t spam ", 1));
+    }
+
+    @Test
+    void emptyInputHasAnEmptyCommandName() {
+        TokenizedCommand command = TokenizedCommand.tokenize("", 0);
+
+        assertEquals(1, command.size());
+        assertEquals("", command.get(0));
+        assertEquals("", command.rawFrom(1));
+    }
+
+    @Test
+    void prefixAloneHasAnEmptyCommandName() {
+        assertArrayEquals(new String[] {""}, tokens("!", 1));
+        // The command name directly follows the prefix, so whitespace after it starts the arguments.
+        assertArrayEquals(new String[] {"", "ping"}, tokens("! ping", 1));
+    }
+
+    @Test
+    void quotedTokensKeepWhitespace() {
+        assertArrayEquals(new String[] {"say", "hello world", "it's here", "a \"b\""}, tokens("!say \"hello world\" \"it's here\" 'a \"b\"'", 1));
+    }
+
+    @Test
+    void apostrophesInsideWordsAreOrdinary() {
+        assertArrayEquals(new String[] {"say", "I'm", "here", "now"}, tokens("!say I'm here now", 1));
+        assertArrayEquals(new String[] {"say", "a\"b", "c"}, tokens("!say a\"b c", 1));
+    }
+
+    @Test
+    void unterminatedQuoteRunsToTheEnd() {
+        assertArrayEquals(new String[] {"say", "hello world  "}, tokens("!say \"hello world  ", 1));
+        assertArrayEquals(new String[] {"say", ""}, tokens("!say '", 1));
+    }
+
+    @Test
+    void escapedQuotesAreLiteral() {
+        assertArrayEquals(new String[] {"say", "\"hi", "there\""}, tokens("!say \\\"hi there\\\"", 1));
+        assertArrayEquals(new String[] {"say", "a \"quoted\" word"}, tokens("!say \"a \\\"quoted\\\" word\"", 1));
+        assertArrayEquals(new String[] {"say", "a b"}, tokens("!say a\\ b", 1));
+    }
+
+    @Test
+    void trailingBackslashIsKept() {
+        assertArrayEquals(new String[] {"say", "path\\"}, tokens("!say path\\", 1));
+    }
+
+    @Test
+    void textAfterClosingQuoteBelongsToTheToken() {
+        assertArrayEquals(new String[] {"say", "ab\"c"}, tokens("!say \"a\"b\"c", 1));
+    }
+
+    @Test
+    void rawFromKeepsQuotesAndEscapes() {
+        TokenizedCommand command = TokenizedCommand.tokenize("!note add \"a b\" \\c", 1);
+
+        assertEquals("\"a b\" \\c", command.rawFrom(2));
+        assertEquals("", command.rawFrom(4));
+    }
+
+    @Test
+    void rejectsOutOfBoundsIndex() {
+        TokenizedCommand command = TokenizedCommand.tokenize("!ping", 1);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> command.get(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> command.get(-1));
+    }
+
+    @Test
+    void growsPastInitialCapacity() {
+        StringBuilder content = new StringBuilder("!sum");
+        for (int i = 0; i < 20; i++) {
+            content.append(' ').append(i);
+        }
+        TokenizedCommand command = TokenizedCommand.tokenize(content.toString(), 1);
+
+        assertEquals(21, command.size());
+        assertEquals("19", command.get(20));
+    }
+}